@@ -0,0 +1,58 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.layout.Layout;
+import org.cytoscape.examine.internal.visualization.overview.Contours;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set contour derivation over a converged layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContoursBenchmark {
+
+    // Bound on layout updates until convergence.
+    private static final int MAX_UPDATES = 1000;
+
+    @Param({"25", "50", "100"})
+    public int size;
+
+    @Param({"5"})
+    public int setCount;
+
+    private Layout layout;
+    private AnimatedGraphics g;
+
+    @Setup
+    public void setup() throws Exception {
+        Workload workload = Workload.load(size);
+        g = Workload.graphics();
+        layout = new Layout(g, workload.network, workload.selection(setCount), null);
+        for(int i = 0; i < MAX_UPDATES && !layout.updatePositions(g); i++) {
+            // Converge.
+        }
+    }
+
+    @Benchmark
+    public Contours derive() {
+        return new Contours(g, layout);
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.data.HNode;
+import org.cytoscape.examine.internal.layout.dwyer.cola.Descent;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single Runge-Kutta step of the stress majorization, over
+ * the shortest path distances of the workload network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescentBenchmark {
+
+    // Desired distance per edge.
+    private static final double EDGE_LENGTH = 50;
+
+    @Param({"25", "100", "400"})
+    public int size;
+
+    private Descent descent;
+
+    @Setup
+    public void setup() throws Exception {
+        Workload workload = Workload.load(size);
+        UndirectedGraph<HNode, DefaultEdge> graph = workload.network.graph;
+        HNode[] nodes = graph.vertexSet().toArray(new HNode[] {});
+        int n = nodes.length;
+
+        Map<HNode, Integer> index = new HashMap<HNode, Integer>();
+        for(int i = 0; i < n; i++) {
+            index.put(nodes[i], i);
+        }
+
+        // Breadth first hop distances.
+        double[][] D = new double[n][n];
+        for(int i = 0; i < n; i++) {
+            int[] hops = new int[n];
+            Arrays.fill(hops, -1);
+            hops[i] = 0;
+            Deque<HNode> queue = new ArrayDeque<HNode>();
+            queue.add(nodes[i]);
+            while(!queue.isEmpty()) {
+                HNode node = queue.poll();
+                int h = hops[index.get(node)];
+                for(DefaultEdge edge: graph.edgesOf(node)) {
+                    HNode neighbour = graph.getEdgeSource(edge) == node ?
+                                      graph.getEdgeTarget(edge) : graph.getEdgeSource(edge);
+                    int j = index.get(neighbour);
+                    if(hops[j] < 0) {
+                        hops[j] = h + 1;
+                        queue.add(neighbour);
+                    }
+                }
+            }
+            for(int j = 0; j < n; j++) {
+                D[i][j] = EDGE_LENGTH * (hops[j] < 0 ? n : hops[j]);
+            }
+        }
+
+        Random random = new Random(42);
+        double[][] x = new double[2][n];
+        for(int i = 0; i < n; i++) {
+            x[0][i] = random.nextDouble() * EDGE_LENGTH * n;
+            x[1][i] = random.nextDouble() * EDGE_LENGTH * n;
+        }
+
+        descent = new Descent(x, D, null);
+    }
+
+    @Benchmark
+    public double rungeKutta() {
+        return descent.rungeKutta();
+    }
+
+}
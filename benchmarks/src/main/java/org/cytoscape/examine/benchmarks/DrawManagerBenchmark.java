@@ -0,0 +1,113 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.graphics.DrawManager;
+import org.cytoscape.examine.internal.graphics.draw.Snippet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame bookkeeping of the draw manager: snippet registration,
+ * value transitions, fading and removal. Snippets draw small
+ * rectangles such that rasterization does not dominate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawManagerBenchmark {
+
+    // Fraction of snippets that is replaced per frame in the churn case.
+    private static final double CHURN = 0.1;
+
+    @Param({"100", "1000", "10000"})
+    public int snippets;
+
+    private AnimatedGraphics g;
+    private DrawManager drawManager;
+    private Cell[] cells;
+    private Snippet root;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        g = Workload.graphics();
+        drawManager = g.getDrawManager();
+        drawManager.setAnimated(true);
+        random = new Random(42);
+
+        cells = new Cell[snippets];
+        for(int i = 0; i < snippets; i++) {
+            cells[i] = new Cell(random.nextInt(1000), random.nextInt(1000));
+        }
+        root = new Snippet() {
+
+            @Override
+            public void draw(AnimatedGraphics g) {
+                g.snippets(cells);
+            }
+
+        };
+
+        // Register all snippets.
+        frame();
+    }
+
+    // Snippets are stable, positions move.
+    @Benchmark
+    public void steadyFrame() {
+        for(int i = 0; i < cells.length; i++) {
+            cells[i].x = (cells[i].x + 1) % 1000;
+        }
+        frame();
+    }
+
+    // Part of the snippets is replaced, such that snippets fade in and out.
+    @Benchmark
+    public void churnFrame() {
+        int replaced = (int) (CHURN * cells.length);
+        for(int i = 0; i < replaced; i++) {
+            cells[random.nextInt(cells.length)] = new Cell(random.nextInt(1000), random.nextInt(1000));
+        }
+        frame();
+    }
+
+    private void frame() {
+        drawManager.pre();
+        drawManager.preScreen();
+        g.snippet(root);
+        drawManager.postScreen(g);
+        drawManager.post();
+    }
+
+    private static class Cell extends Snippet {
+        double x, y;
+
+        Cell(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public void draw(AnimatedGraphics g) {
+            g.color(Color.GRAY);
+            g.fillRect(x, y, 4, 4);
+        }
+    }
+
+}
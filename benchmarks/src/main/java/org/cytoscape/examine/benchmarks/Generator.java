@@ -0,0 +1,351 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.data.DataSet;
+import org.cytoscape.examine.internal.data.HCategory;
+import org.cytoscape.examine.internal.data.HNode;
+import org.cytoscape.examine.internal.data.HSet;
+import org.cytoscape.examine.internal.data.SuperNetwork;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic network and set workloads for scaling measurements, as
+ * data sets or in the TSV format of the data directory.
+ *
+ * Usage: Generator <directory> [nodes=1000] [degree=4] [distribution=scale-free]
+ *        [categories=4] [sets=50] [minSetSize=3] [setSizeExponent=2] [overlap=0.2] [seed=42]
+ */
+public class Generator {
+
+    // Degree distribution of the generated network.
+    public enum Degrees {
+        UNIFORM,    // Random pairs (Erdos-Renyi).
+        SCALE_FREE  // Preferential attachment (Barabasi-Albert).
+    }
+
+    private final int nodes;
+    private final double meanDegree;
+    private final Degrees degrees;
+    private final int categories;
+    private final int setsPerCategory;
+    private final int minSetSize;
+    private final double setSizeExponent;
+    private final double overlap;
+    private final long seed;
+
+    /**
+     * @param nodes Number of nodes.
+     * @param meanDegree Mean node degree.
+     * @param degrees Degree distribution.
+     * @param categories Number of set categories.
+     * @param setsPerCategory Number of sets per category.
+     * @param minSetSize Minimum set size.
+     * @param setSizeExponent Exponent of the Pareto distributed set sizes, larger is more uniform.
+     * @param overlap Fraction of set members drawn from members of earlier sets, in [0, 1].
+     * @param seed Random seed, equal parameters and seed give equal workloads.
+     */
+    public Generator(int nodes, double meanDegree, Degrees degrees,
+                     int categories, int setsPerCategory,
+                     int minSetSize, double setSizeExponent,
+                     double overlap, long seed) {
+        this.nodes = nodes;
+        this.meanDegree = meanDegree;
+        this.degrees = degrees;
+        this.categories = categories;
+        this.setsPerCategory = setsPerCategory;
+        this.minSetSize = Math.max(1, minSetSize);
+        this.setSizeExponent = setSizeExponent;
+        this.overlap = Math.min(1, Math.max(0, overlap));
+        this.seed = seed;
+    }
+
+    /**
+     * Generate data set, nodes are registered with their sets.
+     */
+    public DataSet generate() {
+        Random random = new Random(seed);
+
+        // Nodes.
+        HNode[] ns = new HNode[nodes];
+        UndirectedGraph<HNode, DefaultEdge> graph = new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+        for(int i = 0; i < nodes; i++) {
+            ns[i] = new HNode(i, null, null, nodeId(i), "G" + i, "", 10 * random.nextDouble() - 5);
+            graph.addVertex(ns[i]);
+        }
+
+        // Edges.
+        List<List<Integer>> adjacency = new ArrayList<List<Integer>>();
+        for(int i = 0; i < nodes; i++) {
+            adjacency.add(new ArrayList<Integer>());
+        }
+        for(long edge: degrees == Degrees.SCALE_FREE ? preferentialEdges(random) : uniformEdges(random)) {
+            int source = (int) (edge >>> 32);
+            int target = (int) edge;
+            graph.addEdge(ns[source], ns[target]);
+            adjacency.get(source).add(target);
+            adjacency.get(target).add(source);
+        }
+
+        // Sets, grown from a random seed node through neighbours or earlier set members.
+        List<Integer> setMembers = new ArrayList<Integer>();
+        Set<Integer> inSets = new HashSet<Integer>();
+        Map<String, HCategory> cs = new LinkedHashMap<String, HCategory>();
+        for(int c = 0; c < categories; c++) {
+            String category = categoryName(c);
+            List<HSet> sets = new ArrayList<HSet>();
+
+            for(int s = 0; s < setsPerCategory && nodes > 0; s++) {
+                int size = setSize(random);
+                Set<Integer> members = new LinkedHashSet<Integer>();
+                List<Integer> frontier = new ArrayList<Integer>();
+                int start = random.nextInt(nodes);
+                members.add(start);
+                frontier.add(start);
+
+                int misses = 0;
+                while(members.size() < size) {
+                    int next;
+                    if(misses > 4 * size) {
+                        // Neighbourhood exhausted.
+                        next = random.nextInt(nodes);
+                    } else if(!setMembers.isEmpty() && random.nextDouble() < overlap) {
+                        next = setMembers.get(random.nextInt(setMembers.size()));
+                    } else if(!frontier.isEmpty()) {
+                        int from = frontier.get(random.nextInt(frontier.size()));
+                        List<Integer> neighbours = adjacency.get(from);
+                        if(neighbours.isEmpty()) {
+                            frontier.remove(Integer.valueOf(from));
+                            continue;
+                        }
+                        next = neighbours.get(random.nextInt(neighbours.size()));
+                    } else {
+                        next = random.nextInt(nodes);
+                    }
+
+                    if(members.add(next)) {
+                        frontier.add(next);
+                    } else {
+                        misses++;
+                    }
+                }
+
+                List<HNode> hMembers = new ArrayList<HNode>();
+                for(int m: members) {
+                    hMembers.add(ns[m]);
+                    if(inSets.add(m)) {
+                        setMembers.add(m);
+                    }
+                }
+
+                // Log uniform enrichment scores.
+                double score = Math.pow(10, -6 + 4 * random.nextDouble());
+                HSet set = new HSet(null, setId(c, s), score, "", hMembers);
+                for(HNode n: hMembers) {
+                    n.sets.add(set);
+                }
+                sets.add(set);
+            }
+
+            cs.put(category, new HCategory(null, category, sets, sets.size()));
+        }
+
+        return new DataSet(new SuperNetwork(null, graph), cs);
+    }
+
+    /**
+     * Write generated data set to the given directory as
+     * nodes_induced.txt, edges.txt and sets_induced.txt.
+     */
+    public void write(File directory) throws IOException {
+        write(generate(), directory);
+    }
+
+    /**
+     * Write data set to the given directory as nodes_induced.txt,
+     * edges.txt and sets_induced.txt. Set identifiers are set names.
+     */
+    public static void write(DataSet dataSet, File directory) throws IOException {
+        directory.mkdirs();
+        UndirectedGraph<HNode, DefaultEdge> graph = dataSet.superNetwork.get().graph;
+        Map<String, HCategory> cs = dataSet.categories.get();
+
+        // Set to category.
+        Map<HSet, String> setCategories = new HashMap<HSet, String>();
+        for(HCategory category: cs.values()) {
+            for(HSet set: category.members) {
+                setCategories.put(set, category.name);
+            }
+        }
+
+        Writer nodeWriter = writer(new File(directory, "nodes_induced.txt"));
+        try {
+            nodeWriter.write("ID\tModule\tnewScore\tScore\tLogFC\tSymbol\tMGI\tURL");
+            for(String category: cs.keySet()) {
+                nodeWriter.write("\t" + category);
+            }
+            nodeWriter.write("\n");
+
+            for(HNode node: graph.vertexSet()) {
+                nodeWriter.write(node.id + "\t\t0.0\t" +
+                                 String.format(Locale.ROOT, "%.6f", node.score) + "\t0.0\t" +
+                                 node.name + "\t\t" + node.url);
+                for(String category: cs.keySet()) {
+                    StringBuilder memberships = new StringBuilder();
+                    for(HSet set: node.sets) {
+                        if(category.equals(setCategories.get(set))) {
+                            if(memberships.length() > 0) {
+                                memberships.append('|');
+                            }
+                            memberships.append(set.name);
+                        }
+                    }
+                    nodeWriter.write("\t" + memberships);
+                }
+                nodeWriter.write("\n");
+            }
+        } finally {
+            nodeWriter.close();
+        }
+
+        Writer edgeWriter = writer(new File(directory, "edges.txt"));
+        try {
+            for(DefaultEdge edge: graph.edgeSet()) {
+                edgeWriter.write(graph.getEdgeSource(edge).id + "\t" + graph.getEdgeTarget(edge).id + "\n");
+            }
+        } finally {
+            edgeWriter.close();
+        }
+
+        Writer setWriter = writer(new File(directory, "sets_induced.txt"));
+        try {
+            setWriter.write("ID\tCategory\tScore\tSymbol\tURL\n");
+            for(HCategory category: cs.values()) {
+                for(HSet set: category.members) {
+                    setWriter.write(set.name + "\t" + category.name + "\t" +
+                                    String.format(Locale.ROOT, "%.3g", set.score) + "\t" +
+                                    set.name + "\t" + set.url + "\n");
+                }
+            }
+        } finally {
+            setWriter.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0) {
+            System.err.println("Usage: Generator <directory> [nodes=1000] [degree=4] [distribution=scale-free]" +
+                               " [categories=4] [sets=50] [minSetSize=3] [setSizeExponent=2] [overlap=0.2] [seed=42]");
+            System.exit(1);
+        }
+
+        Map<String, String> options = new HashMap<String, String>();
+        for(int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+
+        Generator generator = new Generator(
+                Integer.parseInt(option(options, "nodes", "1000")),
+                Double.parseDouble(option(options, "degree", "4")),
+                option(options, "distribution", "scale-free").equals("uniform") ?
+                        Degrees.UNIFORM : Degrees.SCALE_FREE,
+                Integer.parseInt(option(options, "categories", "4")),
+                Integer.parseInt(option(options, "sets", "50")),
+                Integer.parseInt(option(options, "minSetSize", "3")),
+                Double.parseDouble(option(options, "setSizeExponent", "2")),
+                Double.parseDouble(option(options, "overlap", "0.2")),
+                Long.parseLong(option(options, "seed", "42")));
+        generator.write(new File(args[0]));
+    }
+
+    // Distinct random pairs, encoded as source << 32 | target.
+    private Set<Long> uniformEdges(Random random) {
+        long target = Math.min((long) (0.5 * meanDegree * nodes), (long) nodes * (nodes - 1) / 2);
+        Set<Long> edges = new LinkedHashSet<Long>();
+        while(edges.size() < target) {
+            int s = random.nextInt(nodes);
+            int t = random.nextInt(nodes);
+            if(s != t) {
+                edges.add(edge(s, t));
+            }
+        }
+        return edges;
+    }
+
+    // Each node attaches to existing nodes with probability proportional to their degree.
+    private Set<Long> preferentialEdges(Random random) {
+        int m = Math.max(1, (int) Math.round(0.5 * meanDegree));
+        Set<Long> edges = new LinkedHashSet<Long>();
+        List<Integer> endpoints = new ArrayList<Integer>();
+
+        for(int i = 1; i < nodes; i++) {
+            int links = Math.min(m, i);
+            Set<Integer> targets = new HashSet<Integer>();
+            while(targets.size() < links) {
+                targets.add(endpoints.isEmpty() || random.nextDouble() < 0.1 ?
+                            random.nextInt(i) :
+                            endpoints.get(random.nextInt(endpoints.size())));
+            }
+            for(int t: targets) {
+                edges.add(edge(i, t));
+                endpoints.add(i);
+                endpoints.add(t);
+            }
+        }
+        return edges;
+    }
+
+    // Pareto distributed size, at least the minimum and at most the node count.
+    private int setSize(Random random) {
+        double u = 1 - random.nextDouble();
+        double size = minSetSize * Math.pow(u, -1 / Math.max(1e-3, setSizeExponent));
+        return (int) Math.min(nodes, Math.max(minSetSize, Math.round(Math.min(size, nodes))));
+    }
+
+    private static long edge(int source, int target) {
+        int s = Math.min(source, target);
+        int t = Math.max(source, target);
+        return ((long) s << 32) | t;
+    }
+
+    private static String nodeId(int i) {
+        return String.format(Locale.ROOT, "N%06d", i);
+    }
+
+    private static String setId(int category, int set) {
+        return String.format(Locale.ROOT, "S%02d:%05d", category, set);
+    }
+
+    private static String categoryName(int category) {
+        return "Category" + (category + 1);
+    }
+
+    private static String option(Map<String, String> options, String key, String defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static Writer writer(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+}
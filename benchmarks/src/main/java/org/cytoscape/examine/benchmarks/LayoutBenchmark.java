@@ -0,0 +1,54 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.layout.Layout;
+import org.cytoscape.examine.internal.model.Selection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout construction: set spanning graphs, shortest paths and
+ * the initial unconstrained and projected descent runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({"25", "50", "100"})
+    public int size;
+
+    @Param({"5"})
+    public int setCount;
+
+    private Workload workload;
+    private Selection selection;
+    private AnimatedGraphics g;
+
+    @Setup
+    public void setup() throws Exception {
+        workload = Workload.load(size);
+        selection = workload.selection(setCount);
+        g = Workload.graphics();
+    }
+
+    @Benchmark
+    public Layout construct() {
+        return new Layout(g, workload.network, selection, null);
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.layout.Layout;
+import org.cytoscape.examine.internal.model.Selection;
+import org.cytoscape.examine.internal.visualization.overview.Contours;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout and contour time over generated networks of increasing size,
+ * for scaling curves. Larger sizes, up to 50k nodes, via -p nodes=...
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ScalingBenchmark {
+
+    @Param({"100", "200", "400", "800"})
+    public int nodes;
+
+    @Param({"4"})
+    public double degree;
+
+    @Param({"SCALE_FREE"})
+    public Generator.Degrees distribution;
+
+    @Param({"5"})
+    public int setCount;
+
+    @Param({"0.2"})
+    public double overlap;
+
+    private Workload workload;
+    private Selection selection;
+    private AnimatedGraphics g;
+    private Layout layout;
+
+    @Setup
+    public void setup() {
+        Generator generator = new Generator(nodes, degree, distribution, 4, 50, 3, 2, overlap, 42);
+        workload = Workload.induce(generator.generate(), nodes);
+        selection = workload.selection(setCount);
+        g = Workload.graphics();
+        layout = new Layout(g, workload.network, selection, null);
+    }
+
+    @Benchmark
+    public Layout layout() {
+        return new Layout(g, workload.network, selection, null);
+    }
+
+    @Benchmark
+    public Contours contours() {
+        return new Contours(g, layout);
+    }
+
+}
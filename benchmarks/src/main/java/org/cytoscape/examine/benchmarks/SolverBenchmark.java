@@ -0,0 +1,105 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.data.HNode;
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.graphics.PVector;
+import org.cytoscape.examine.internal.layout.Layout;
+import org.cytoscape.examine.internal.layout.dwyer.vpsc.Constraint;
+import org.cytoscape.examine.internal.layout.dwyer.vpsc.Solver;
+import org.cytoscape.examine.internal.layout.dwyer.vpsc.Variable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Horizontal non-overlap projection of node labels, as the layout
+ * solves it per descent step: label spans of the laid out workload
+ * network, with perturbed desired positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"25", "100", "200"})
+    public int size;
+
+    @Param({"5"})
+    public int setCount;
+
+    private Variable[] variables;
+    private Constraint[] constraints;
+    private double[] starting;
+    private double[] desired;
+
+    @Setup
+    public void setup() throws Exception {
+        Workload workload = Workload.load(size);
+        AnimatedGraphics g = Workload.graphics();
+        Layout layout = new Layout(g, workload.network, workload.selection(setCount), null);
+
+        int n = layout.nodes.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] radii = new double[n];
+        double[] heights = new double[n];
+        for(int i = 0; i < n; i++) {
+            HNode node = layout.nodes[i];
+            PVector p = layout.position(node);
+            PVector d = Layout.labelSpacedDimensions(g, node);
+            x[i] = p.x;
+            y[i] = p.y;
+            radii[i] = 0.5 * d.x;
+            heights[i] = d.y;
+        }
+
+        // Separation of label spans that share a row.
+        variables = new Variable[n];
+        for(int i = 0; i < n; i++) {
+            variables[i] = new Variable(0, 1, 1);
+        }
+        List<Constraint> cs = new ArrayList<Constraint>();
+        for(int i = 0; i < n; i++) {
+            for(int j = 0; j < n; j++) {
+                if(i != j && x[i] <= x[j] &&
+                   Math.abs(y[i] - y[j]) < 0.5 * (heights[i] + heights[j])) {
+                    cs.add(new Constraint(variables[i], variables[j], radii[i] + radii[j], false));
+                }
+            }
+        }
+        constraints = cs.toArray(new Constraint[] {});
+
+        // Desired positions are a descent step away from the current ones.
+        Random random = new Random(42);
+        starting = x;
+        desired = new double[n];
+        for(int i = 0; i < n; i++) {
+            desired[i] = x[i] + 20 * random.nextGaussian();
+        }
+    }
+
+    @Benchmark
+    public double solve() {
+        Solver solver = new Solver(variables, constraints);
+        solver.setStartingPositions(starting);
+        solver.setDesiredPositions(desired);
+        return solver.solve();
+    }
+
+}
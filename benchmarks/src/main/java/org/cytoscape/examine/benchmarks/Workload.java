@@ -0,0 +1,186 @@
+package org.cytoscape.examine.benchmarks;
+
+import org.cytoscape.examine.internal.data.DataSet;
+import org.cytoscape.examine.internal.data.DataSetReader;
+import org.cytoscape.examine.internal.data.HCategory;
+import org.cytoscape.examine.internal.data.HNode;
+import org.cytoscape.examine.internal.data.HSet;
+import org.cytoscape.examine.internal.data.SuperNetwork;
+import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.graphics.draw.Constants;
+import org.cytoscape.examine.internal.model.Selection;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmark workload: a connected part of a network in the TSV format
+ * of the data directory, with the sets that cover it.
+ */
+public final class Workload {
+
+    // Induced network.
+    public final SuperNetwork network;
+
+    // Sets restricted to the induced network, largest first.
+    public final List<HSet> sets;
+
+    private Workload(SuperNetwork network, List<HSet> sets) {
+        this.network = network;
+        this.sets = sets;
+    }
+
+    /**
+     * Load the workload of the given number of nodes from the data directory.
+     */
+    public static Workload load(int size) throws IOException {
+        return load(dataDirectory(), size);
+    }
+
+    /**
+     * Load the workload of the given number of nodes from the given directory,
+     * which contains nodes_induced.txt, edges.txt and sets_induced.txt.
+     */
+    public static Workload load(File directory, int size) throws IOException {
+        return induce(read(directory), size);
+    }
+
+    /**
+     * Read the complete data set from the given directory, which
+     * contains nodes_induced.txt, edges.txt and sets_induced.txt.
+     */
+    public static DataSet read(File directory) throws IOException {
+        return DataSetReader.read(directory);
+    }
+
+    /**
+     * Workload of a connected part of the given number of nodes of the
+     * data set network, around its best connected node, with the sets
+     * that have at least two members in that part.
+     */
+    public static Workload induce(DataSet dataSet, int size) {
+        UndirectedGraph<HNode, DefaultEdge> graph = dataSet.superNetwork.get().graph;
+        Set<HNode> induced = breadthFirst(graph, size);
+
+        // Graph.
+        UndirectedGraph<HNode, DefaultEdge> inducedGraph =
+                new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+        for(HNode node: induced) {
+            inducedGraph.addVertex(node);
+        }
+        for(DefaultEdge edge: graph.edgeSet()) {
+            HNode source = graph.getEdgeSource(edge);
+            HNode target = graph.getEdgeTarget(edge);
+            if(induced.contains(source) && induced.contains(target)) {
+                inducedGraph.addEdge(source, target);
+            }
+        }
+
+        // Sets restricted to the part.
+        List<HSet> sets = new ArrayList<HSet>();
+        for(HCategory category: dataSet.categories.get().values()) {
+            for(HSet set: category.members) {
+                List<HNode> setMembers = new ArrayList<HNode>();
+                for(HNode node: set.elements) {
+                    if(induced.contains(node)) {
+                        setMembers.add(node);
+                    }
+                }
+
+                if(setMembers.size() >= 2) {
+                    sets.add(setMembers.size() == set.elements.size() ? set :
+                             new HSet(null, set.name, set.score, set.url, setMembers));
+                }
+            }
+        }
+        Collections.sort(sets, new Comparator<HSet>() {
+
+            @Override
+            public int compare(HSet s1, HSet s2) {
+                return s2.elements.size() - s1.elements.size();
+            }
+
+        });
+
+        return new Workload(new SuperNetwork(null, inducedGraph), sets);
+    }
+
+    /**
+     * Selection of the given number of largest sets, equally weighted.
+     */
+    public Selection selection(int setCount) {
+        Selection selection = new Selection(null);
+        for(HSet set: sets.subList(0, Math.min(setCount, sets.size()))) {
+            selection.add(set, 1.0);
+        }
+        return selection;
+    }
+
+    /**
+     * Export style graphics on an off-screen image, with fonts
+     * set up as an interactive window would.
+     */
+    public static AnimatedGraphics graphics() {
+        Constants.loadFonts();
+
+        BufferedImage image = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return new AnimatedGraphics(g2);
+    }
+
+    // Data directory via the examine.data property, or the repository data directory.
+    private static File dataDirectory() {
+        String property = System.getProperty("examine.data");
+        if(property != null) {
+            return new File(property);
+        }
+
+        File local = new File("data");
+        return local.isDirectory() ? local : new File("../data");
+    }
+
+    // Up to the given number of nodes, breadth first from the node of highest degree.
+    private static Set<HNode> breadthFirst(UndirectedGraph<HNode, DefaultEdge> graph, int size) {
+        HNode root = null;
+        for(HNode node: graph.vertexSet()) {
+            if(root == null || graph.degreeOf(node) > graph.degreeOf(root)) {
+                root = node;
+            }
+        }
+
+        Set<HNode> visited = new LinkedHashSet<HNode>();
+        Deque<HNode> queue = new ArrayDeque<HNode>();
+        if(root != null) {
+            visited.add(root);
+            queue.add(root);
+        }
+        while(!queue.isEmpty() && visited.size() < size) {
+            HNode node = queue.poll();
+            for(DefaultEdge edge: graph.edgesOf(node)) {
+                HNode neighbour = graph.getEdgeSource(edge) == node ?
+                                  graph.getEdgeTarget(edge) : graph.getEdgeSource(edge);
+                if(visited.size() < size && visited.add(neighbour)) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        return visited;
+    }
+
+}
@@ -8,11 +8,18 @@ import org.cytoscape.examine.internal.taskfactories.CommandTaskFactory;
 import org.cytoscape.examine.internal.tasks.ExamineCommand;
 import org.cytoscape.group.CyGroupFactory;
 import org.cytoscape.group.CyGroupManager;
+import org.cytoscape.group.events.GroupAboutToBeDestroyedListener;
+import org.cytoscape.group.events.GroupAddedListener;
+import org.cytoscape.group.events.GroupNodesAddedListener;
+import org.cytoscape.group.events.GroupNodesRemovedListener;
 import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.events.AddedEdgesListener;
 import org.cytoscape.model.events.ColumnCreatedListener;
 import org.cytoscape.model.events.ColumnDeletedListener;
 import org.cytoscape.model.events.ColumnNameChangedListener;
 import org.cytoscape.model.events.NetworkDestroyedListener;
+import org.cytoscape.model.events.RemovedEdgesListener;
+import org.cytoscape.model.events.RemovedNodesListener;
 import org.cytoscape.model.events.RowsSetListener;
 import org.cytoscape.model.subnetwork.CyRootNetworkManager;
 import org.cytoscape.service.util.AbstractCyActivator;
@@ -28,6 +35,7 @@ import java.util.Properties;
 import static org.cytoscape.work.ServiceProperties.COMMAND;
 import static org.cytoscape.work.ServiceProperties.COMMAND_DESCRIPTION;
 import static org.cytoscape.work.ServiceProperties.COMMAND_NAMESPACE;
+import static org.cytoscape.work.ServiceProperties.COMMAND_SUPPORTS_JSON;
 
 /**
  * Execution body.
@@ -56,6 +64,17 @@ public class CyActivator extends AbstractCyActivator {
         registerService(bundleContext, controlPanel, NetworkDestroyedListener.class, new Properties());
         registerService(bundleContext, controlPanel, SessionLoadedListener.class, new Properties());
 
+        // Maintain data sets under network, table and group changes.
+        DataSetUpdater dataSetUpdater = new DataSetUpdater(settings);
+        registerService(bundleContext, dataSetUpdater, RowsSetListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, AddedEdgesListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, RemovedEdgesListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, RemovedNodesListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, GroupAddedListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, GroupAboutToBeDestroyedListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, GroupNodesAddedListener.class, new Properties());
+        registerService(bundleContext, dataSetUpdater, GroupNodesRemovedListener.class, new Properties());
+
         //Register commands to allow access via CyRest TODO: Possible to reduce number of lines by putting shared lines in a function, this might be easier to read though
         registerCommands(bundleContext,
                 ExamineCommand.GENERATE_GROUPS,
@@ -63,7 +82,9 @@ public class CyActivator extends AbstractCyActivator {
                 ExamineCommand.UPDATE_SETTINGS,
                 ExamineCommand.SELECT_GROUPS,
                 ExamineCommand.INTERACT,
-                ExamineCommand.EXPORT
+                ExamineCommand.EXPORT,
+                ExamineCommand.METRICS,
+                ExamineCommand.BATCH_EXPORT
         );
     }
 
@@ -99,6 +120,9 @@ public class CyActivator extends AbstractCyActivator {
             props.setProperty(COMMAND_NAMESPACE, Constants.APP_COMMAND_PREFIX);
             props.setProperty(COMMAND, command.toString());
             props.setProperty(COMMAND_DESCRIPTION, command.getDescription());
+            if (command == ExamineCommand.METRICS) {
+                props.setProperty(COMMAND_SUPPORTS_JSON, "true");
+            }
             registerService(bc, commandTaskFactory, TaskFactory.class, props);
         }
     }
@@ -0,0 +1,99 @@
+package org.cytoscape.examine.internal;
+
+import org.cytoscape.examine.internal.data.IncrementalDataSet;
+import org.cytoscape.examine.internal.settings.SessionSettings;
+import org.cytoscape.group.events.GroupAboutToBeDestroyedEvent;
+import org.cytoscape.group.events.GroupAboutToBeDestroyedListener;
+import org.cytoscape.group.events.GroupAddedEvent;
+import org.cytoscape.group.events.GroupAddedListener;
+import org.cytoscape.group.events.GroupNodesAddedEvent;
+import org.cytoscape.group.events.GroupNodesAddedListener;
+import org.cytoscape.group.events.GroupNodesRemovedEvent;
+import org.cytoscape.group.events.GroupNodesRemovedListener;
+import org.cytoscape.model.events.AddedEdgesEvent;
+import org.cytoscape.model.events.AddedEdgesListener;
+import org.cytoscape.model.events.RemovedEdgesEvent;
+import org.cytoscape.model.events.RemovedEdgesListener;
+import org.cytoscape.model.events.RemovedNodesEvent;
+import org.cytoscape.model.events.RemovedNodesListener;
+import org.cytoscape.model.events.RowsSetEvent;
+import org.cytoscape.model.events.RowsSetListener;
+
+/**
+ * Forwards network, table and group changes to the maintained data sets.
+ * Unlike the control panel, it is not disabled during group generation,
+ * as the data sets have to observe every change.
+ */
+public class DataSetUpdater implements
+        RowsSetListener,
+        AddedEdgesListener,
+        RemovedEdgesListener,
+        RemovedNodesListener,
+        GroupAddedListener,
+        GroupAboutToBeDestroyedListener,
+        GroupNodesAddedListener,
+        GroupNodesRemovedListener {
+
+    private final SessionSettings sessionSettings;
+
+    public DataSetUpdater(SessionSettings sessionSettings) {
+        this.sessionSettings = sessionSettings;
+    }
+
+    @Override
+    public void handleEvent(RowsSetEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.rowsSet(e);
+        }
+    }
+
+    @Override
+    public void handleEvent(AddedEdgesEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.edgesAdded(e.getSource(), e.getPayloadCollection());
+        }
+    }
+
+    @Override
+    public void handleEvent(RemovedEdgesEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.elementsRemoved(e.getSource());
+        }
+    }
+
+    @Override
+    public void handleEvent(RemovedNodesEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.elementsRemoved(e.getSource());
+        }
+    }
+
+    @Override
+    public void handleEvent(GroupAddedEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.groupsChanged();
+        }
+    }
+
+    @Override
+    public void handleEvent(GroupAboutToBeDestroyedEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.groupsChanged();
+        }
+    }
+
+    @Override
+    public void handleEvent(GroupNodesAddedEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.groupChanged(e.getSource());
+        }
+    }
+
+    @Override
+    public void handleEvent(GroupNodesRemovedEvent e) {
+        for (IncrementalDataSet dataSet : sessionSettings.getMaintainedDataSets()) {
+            dataSet.groupChanged(e.getSource());
+        }
+    }
+
+}
@@ -3,7 +3,10 @@ package org.cytoscape.examine.internal;
 
 import org.cytoscape.examine.internal.data.DataSet;
 import org.cytoscape.examine.internal.model.Model;
+import org.cytoscape.examine.internal.profiling.Profiler;
 import org.cytoscape.examine.internal.settings.NetworkSettings;
+import org.cytoscape.examine.internal.visualization.ExportJob;
+import org.cytoscape.examine.internal.visualization.HeadlessExport;
 import org.cytoscape.examine.internal.visualization.InteractiveVisualization;
 import org.cytoscape.examine.internal.visualization.SnapshotVisualization;
 import org.cytoscape.model.CyColumn;
@@ -17,6 +20,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class Utilities {
 
@@ -49,14 +55,11 @@ public class Utilities {
 	}
 
 	/**
-	 * Create a data set for consumption by eXamine.
+	 * Create a data set for consumption by eXamine, as a view of the data set
+	 * that is maintained for the network of the given settings.
 	 */
 	private static DataSet createDataSet(CyServices services, NetworkSettings networkSettings) {
-		return new DataSet(
-				services.getApplicationManager().getCurrentNetwork(),
-				services.getGroupManager(),
-				networkSettings
-		);
+		return networkSettings.getDataSet(services.getGroupManager()).refresh(networkSettings);
 	}
 
 	/**
@@ -101,14 +104,72 @@ public class Utilities {
 	 * Export the visualization as an image to the given file path.
 	 */
 	public static void exportVisualization(CyServices services, NetworkSettings networkSettings, File targetFile) {
+		exportVisualization(services, networkSettings, targetFile, 1);
+	}
+
+	/**
+	 * Export the visualization as an image to the given file path, as PNG at the given scale
+	 * for a .png extension and as SVG otherwise.
+	 */
+	public static void exportVisualization(CyServices services, NetworkSettings networkSettings, File targetFile,
+										   double scale) {
 		try {
-			final DataSet dataSet = createDataSet(services, networkSettings);
-			final Model model = createModel(dataSet, services, networkSettings);
-			final SnapshotVisualization visualization = new SnapshotVisualization(dataSet, model);
-			visualization.exportSVG(targetFile);
+			// Snapshot of an open window that shows the same selection, to avoid a new data set and layout.
+			final Set<String> setNames = networkSettings.getDataSet(services.getGroupManager())
+					.selectedSetNames(networkSettings);
+			final InteractiveVisualization live = InteractiveVisualization.showing(
+					services.getApplicationManager().getCurrentNetwork(), setNames);
+			SnapshotVisualization visualization = live == null ?
+					null :
+					live.snapshot(services.getVisualMappingManager());
+
+			if (visualization == null) {
+				final DataSet dataSet = createDataSet(services, networkSettings);
+				final Model model = createModel(dataSet, services, networkSettings);
+				visualization = new SnapshotVisualization(dataSet, model);
+			}
+			if (targetFile.getName().toLowerCase().endsWith(".png")) {
+				visualization.exportPNG(targetFile, scale);
+			} else {
+				visualization.exportSVG(targetFile);
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Export visualizations of the given set selections concurrently, on the given number of threads.
+	 * The jobs share a single data set of the current network and its text metrics.
+	 * @return A summary line per job, with either its export time or failure.
+	 */
+	public static String exportVisualizations(CyServices services, NetworkSettings networkSettings,
+											  List<ExportJob> jobs, int threads) throws InterruptedException {
+		final DataSet dataSet = createDataSet(services, networkSettings);
+		final HeadlessExport export = new HeadlessExport(dataSet, services.getVisualMappingManager(), threads);
+
+		final List<Future<Profiler>> results = new ArrayList<Future<Profiler>>();
+		for (ExportJob job : jobs) {
+			results.add(export.submit(job));
+		}
+
+		final StringBuilder summary = new StringBuilder();
+		try {
+			for (int i = 0; i < results.size(); i++) {
+				summary.append(jobs.get(i).target).append('\t');
+				try {
+					Profiler profiler = results.get(i).get();
+					summary.append(String.format("%.1f ms", profiler.totalMillis(Profiler.Stage.EXPORT)));
+				} catch (ExecutionException e) {
+					summary.append(e.getCause());
+				}
+				summary.append('\n');
+			}
+		} finally {
+			export.shutdown();
+		}
+
+		return summary.toString();
+	}
+
 }
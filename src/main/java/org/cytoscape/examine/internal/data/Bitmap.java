@@ -0,0 +1,614 @@
+package org.cytoscape.examine.internal.data;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of non-negative integers, in the manner of roaring
+ * bitmaps. Values are partitioned by their high 16 bits into containers that
+ * hold the low 16 bits either as sorted array, when sparse, or as bit set,
+ * when dense. Set algebra works per pair of containers, on words for bit sets.
+ */
+public final class Bitmap {
+
+    // Maximum cardinality of an array container.
+    private static final int ARRAY_LIMIT = 4096;
+
+    // Number of words of a bit set container.
+    private static final int WORDS = 1 << 10;
+
+    /**
+     * Empty bitmap.
+     */
+    public static final Bitmap EMPTY = new Bitmap(new char[0], new Container[0], 0);
+
+    // High bits per container, ascending, and containers of the low bits.
+    private final char[] keys;
+    private final Container[] containers;
+
+    private final int cardinality;
+
+    private Bitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys.length == size ? keys : Arrays.copyOf(keys, size);
+        this.containers = containers.length == size ? containers : Arrays.copyOf(containers, size);
+
+        int total = 0;
+        for (Container container : this.containers) {
+            total += container.cardinality();
+        }
+        this.cardinality = total;
+    }
+
+    /**
+     * Bitmap of the given values, which may be unsorted and contain duplicates.
+     */
+    public static Bitmap of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        char[] keys = new char[sorted.length];
+        Container[] containers = new Container[sorted.length];
+        int size = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            if (sorted[start] < 0) {
+                throw new IllegalArgumentException("Negative value " + sorted[start]);
+            }
+
+            char key = high(sorted[start]);
+            int end = start;
+            while (end < sorted.length && high(sorted[end]) == key) {
+                end++;
+            }
+
+            // Distinct low bits of the values with the same high bits.
+            char[] lows = new char[end - start];
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                if (i == start || sorted[i] != sorted[i - 1]) {
+                    lows[count++] = low(sorted[i]);
+                }
+            }
+
+            keys[size] = key;
+            containers[size++] = count <= ARRAY_LIMIT ?
+                    new ArrayContainer(Arrays.copyOf(lows, count)) :
+                    BitSetContainer.of(lows, count);
+            start = end;
+        }
+
+        return new Bitmap(keys, containers, size);
+    }
+
+    /**
+     * Number of values.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Whether the given value is contained.
+     */
+    public boolean contains(int value) {
+        int i = value < 0 ? -1 : Arrays.binarySearch(keys, high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    /**
+     * Values in ascending order.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality];
+        int offset = 0;
+        for (int i = 0; i < keys.length; i++) {
+            offset = containers[i].fill(keys[i] << 16, values, offset);
+        }
+        return values;
+    }
+
+    /**
+     * Values that are contained by both bitmaps.
+     */
+    public Bitmap and(Bitmap other) {
+        int size = Math.min(keys.length, other.keys.length);
+        char[] rKeys = new char[size];
+        Container[] rContainers = new Container[size];
+        int rSize = 0;
+
+        int i = 0, j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    rKeys[rSize] = keys[i];
+                    rContainers[rSize++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return new Bitmap(rKeys, rContainers, rSize);
+    }
+
+    /**
+     * Values that are contained by either bitmap.
+     */
+    public Bitmap or(Bitmap other) {
+        int size = keys.length + other.keys.length;
+        char[] rKeys = new char[size];
+        Container[] rContainers = new Container[size];
+        int rSize = 0;
+
+        int i = 0, j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                rKeys[rSize] = keys[i];
+                rContainers[rSize++] = containers[i++];
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                rKeys[rSize] = other.keys[j];
+                rContainers[rSize++] = other.containers[j++];
+            } else {
+                rKeys[rSize] = keys[i];
+                rContainers[rSize++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+
+        return new Bitmap(rKeys, rContainers, rSize);
+    }
+
+    /**
+     * Values that are contained by this bitmap, but not by the other.
+     */
+    public Bitmap andNot(Bitmap other) {
+        char[] rKeys = new char[keys.length];
+        Container[] rContainers = new Container[keys.length];
+        int rSize = 0;
+
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+
+            Container container = j < other.keys.length && other.keys[j] == keys[i] ?
+                    containers[i].andNot(other.containers[j]) :
+                    containers[i];
+            if (container.cardinality() > 0) {
+                rKeys[rSize] = keys[i];
+                rContainers[rSize++] = container;
+            }
+        }
+
+        return new Bitmap(rKeys, rContainers, rSize);
+    }
+
+    /**
+     * Whether the bitmaps have a value in common, without constructing their intersection.
+     */
+    public boolean intersects(Bitmap other) {
+        int i = 0, j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else if (containers[i++].intersects(other.containers[j++])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether every value is contained by the other bitmap, without constructing their difference.
+     */
+    public boolean isSubsetOf(Bitmap other) {
+        if (cardinality > other.cardinality) {
+            return false;
+        }
+
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j == other.keys.length || other.keys[j] != keys[i] ||
+                    !containers[i].isSubsetOf(other.containers[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of bytes of the serialized form.
+     */
+    public int serializedSize() {
+        int size = 4 + 6 * keys.length;
+        for (Container container : containers) {
+            size += container instanceof ArrayContainer ? 2 * container.cardinality() : 8 * WORDS;
+        }
+        return size;
+    }
+
+    /**
+     * Write the serialized form: the number of containers, the high bits
+     * and cardinality of every container, and then the container contents,
+     * either as low bits or as words of a bit set.
+     */
+    public void write(ByteBuffer out) {
+        out.putInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            out.putChar(keys[i]);
+            out.putInt(containers[i].cardinality());
+        }
+        for (Container container : containers) {
+            if (container instanceof ArrayContainer) {
+                for (char value : ((ArrayContainer) container).values) {
+                    out.putChar(value);
+                }
+            } else {
+                for (long word : ((BitSetContainer) container).words) {
+                    out.putLong(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a bitmap from its serialized form, in bulk from the given buffer.
+     */
+    public static Bitmap read(ByteBuffer in) {
+        int size = in.getInt();
+        char[] keys = new char[size];
+        int[] cardinalities = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = in.getChar();
+            cardinalities[i] = in.getInt();
+        }
+
+        Container[] containers = new Container[size];
+        for (int i = 0; i < size; i++) {
+            if (cardinalities[i] <= ARRAY_LIMIT) {
+                char[] values = new char[cardinalities[i]];
+                in.asCharBuffer().get(values);
+                in.position(in.position() + 2 * values.length);
+                containers[i] = new ArrayContainer(values);
+            } else {
+                long[] words = new long[WORDS];
+                in.asLongBuffer().get(words);
+                in.position(in.position() + 8 * WORDS);
+                containers[i] = new BitSetContainer(words, cardinalities[i]);
+            }
+        }
+
+        return new Bitmap(keys, containers, size);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Bitmap)) {
+            return false;
+        }
+        Bitmap other = (Bitmap) obj;
+        return cardinality == other.cardinality && isSubsetOf(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    // Low bits of the values with the same high bits.
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract boolean intersects(Container other);
+
+        abstract boolean isSubsetOf(Container other);
+
+        // Write values, combined with the given high bits, to the given offset.
+        abstract int fill(int high, int[] values, int offset);
+
+    }
+
+    // Sparse container, as sorted array.
+    private static final class ArrayContainer extends Container {
+
+        final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof BitSetContainer) {
+                return filter(other, true);
+            }
+
+            char[] otherValues = ((ArrayContainer) other).values;
+            char[] result = new char[Math.min(values.length, otherValues.length)];
+            int size = 0;
+            int i = 0, j = 0;
+            while (i < values.length && j < otherValues.length) {
+                if (values[i] < otherValues[j]) {
+                    i++;
+                } else if (values[i] > otherValues[j]) {
+                    j++;
+                } else {
+                    result[size++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitSetContainer) {
+                return other.or(this);
+            }
+
+            char[] otherValues = ((ArrayContainer) other).values;
+            if (values.length + otherValues.length > ARRAY_LIMIT) {
+                long[] words = new long[WORDS];
+                set(words, values);
+                set(words, otherValues);
+                return BitSetContainer.of(words);
+            }
+
+            char[] result = new char[values.length + otherValues.length];
+            int size = 0;
+            int i = 0, j = 0;
+            while (i < values.length || j < otherValues.length) {
+                if (j == otherValues.length || (i < values.length && values[i] < otherValues[j])) {
+                    result[size++] = values[i++];
+                } else if (i == values.length || values[i] > otherValues[j]) {
+                    result[size++] = otherValues[j++];
+                } else {
+                    result[size++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            return filter(other, false);
+        }
+
+        // Values that are, or are not, contained by the other container.
+        private Container filter(Container other, boolean contained) {
+            char[] result = new char[values.length];
+            int size = 0;
+            for (char value : values) {
+                if (other.contains(value) == contained) {
+                    result[size++] = value;
+                }
+            }
+            return size == values.length ? this : new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            for (char value : values) {
+                if (other.contains(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean isSubsetOf(Container other) {
+            for (char value : values) {
+                if (!other.contains(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int fill(int high, int[] result, int offset) {
+            for (char value : values) {
+                result[offset++] = high | value;
+            }
+            return offset;
+        }
+
+    }
+
+    // Dense container, as bit set of 2^16 bits.
+    private static final class BitSetContainer extends Container {
+
+        final long[] words;
+        final int cardinality;
+
+        BitSetContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static Container of(char[] values, int count) {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < count; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return of(words);
+        }
+
+        // Container of the given words, as array when sparse.
+        static Container of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+
+            if (cardinality > ARRAY_LIMIT) {
+                return new BitSetContainer(words, cardinality);
+            }
+
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            long[] otherWords = ((BitSetContainer) other).words;
+            long[] result = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                result[w] = words[w] & otherWords[w];
+            }
+            return of(result);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                set(result, ((ArrayContainer) other).values);
+            } else {
+                long[] otherWords = ((BitSetContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] |= otherWords[w];
+                }
+            }
+            return of(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                for (char value : ((ArrayContainer) other).values) {
+                    result[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] otherWords = ((BitSetContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] &= ~otherWords[w];
+                }
+            }
+            return of(result);
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.intersects(this);
+            }
+
+            long[] otherWords = ((BitSetContainer) other).words;
+            for (int w = 0; w < WORDS; w++) {
+                if ((words[w] & otherWords[w]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean isSubsetOf(Container other) {
+            // Array containers are too small to contain a bit set container.
+            if (other instanceof ArrayContainer) {
+                return false;
+            }
+
+            long[] otherWords = ((BitSetContainer) other).words;
+            for (int w = 0; w < WORDS; w++) {
+                if ((words[w] & ~otherWords[w]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int fill(int high, int[] result, int offset) {
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    result[offset++] = high | ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+    }
+
+    private static void set(long[] words, char[] values) {
+        for (char value : values) {
+            words[value >>> 6] |= 1L << value;
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.cytoscape.examine.internal.data;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jgrapht.Graph;
+
+/**
+ * Immutable undirected graph in compressed sparse row form, with dense
+ * integer vertex ids in the iteration order of the source graph. The
+ * neighbours of every vertex are sorted by id, such that adjacency tests
+ * take a binary search over the vertex degree. Every neighbour entry
+ * refers to the edge of the source graph it stems from, such that edge
+ * identity is preserved for the existing graph API.
+ */
+public final class CompactGraph<V, E> {
+
+    // Vertex to id.
+    private final Map<V, Integer> ids;
+
+    // Id to vertex.
+    private final Object[] vertices;
+
+    // Neighbours of vertex i at offsets[i] until offsets[i + 1].
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    // Source graph edge per neighbour entry.
+    private final Object[] edges;
+
+    // Number of source graph edges.
+    private final int edgeCount;
+
+    private CompactGraph(Graph<V, E> graph) {
+        int vN = graph.vertexSet().size();
+        ids = new HashMap<V, Integer>(2 * vN);
+        vertices = new Object[vN];
+        for (V v : graph.vertexSet()) {
+            vertices[ids.size()] = v;
+            ids.put(v, ids.size());
+        }
+
+        // Count degrees, with a self-loop adjacent to its vertex once.
+        offsets = new int[vN + 1];
+        edgeCount = graph.edgeSet().size();
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        Object[] edgeList = new Object[edgeCount];
+        int eI = 0;
+        for (E e : graph.edgeSet()) {
+            int s = ids.get(graph.getEdgeSource(e));
+            int t = ids.get(graph.getEdgeTarget(e));
+            sources[eI] = s;
+            targets[eI] = t;
+            edgeList[eI] = e;
+            offsets[s + 1]++;
+            if (s != t) {
+                offsets[t + 1]++;
+            }
+            eI++;
+        }
+        for (int i = 0; i < vN; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        // Fill rows in edge order.
+        int[] unsorted = new int[offsets[vN]];
+        Object[] unsortedEdges = new Object[offsets[vN]];
+        int[] fill = new int[vN];
+        System.arraycopy(offsets, 0, fill, 0, vN);
+        for (int i = 0; i < edgeCount; i++) {
+            int s = sources[i];
+            int t = targets[i];
+            unsorted[fill[s]] = t;
+            unsortedEdges[fill[s]++] = edgeList[i];
+            if (s != t) {
+                unsorted[fill[t]] = s;
+                unsortedEdges[fill[t]++] = edgeList[i];
+            }
+        }
+
+        // Transpose by ascending vertex, which sorts every row by neighbour
+        // id in linear time, as the adjacency is symmetric.
+        neighbours = new int[offsets[vN]];
+        edges = new Object[offsets[vN]];
+        System.arraycopy(offsets, 0, fill, 0, vN);
+        for (int t = 0; t < vN; t++) {
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                int s = unsorted[i];
+                neighbours[fill[s]] = t;
+                edges[fill[s]++] = unsortedEdges[i];
+            }
+        }
+    }
+
+    /**
+     * Compact copy of the given undirected graph.
+     */
+    public static <V, E> CompactGraph<V, E> of(Graph<V, E> graph) {
+        return new CompactGraph<V, E>(graph);
+    }
+
+    /**
+     * Number of vertices.
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Number of edges.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Id of the given vertex, or -1 if it is not part of the graph.
+     */
+    public int id(V vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Vertex of the given id.
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int id) {
+        return (V) vertices[id];
+    }
+
+    /**
+     * Number of edges incident to the vertex of the given id.
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Id of the k-th neighbour of the vertex of the given id, by ascending id.
+     */
+    public int neighbour(int id, int k) {
+        return neighbours[offsets[id] + k];
+    }
+
+    /**
+     * Edge to the k-th neighbour of the vertex of the given id.
+     */
+    @SuppressWarnings("unchecked")
+    public E edge(int id, int k) {
+        return (E) edges[offsets[id] + k];
+    }
+
+    /**
+     * Whether the vertices of the given ids are adjacent, where -1 denotes
+     * a vertex that is not part of the graph.
+     */
+    public boolean adjacent(int source, int target) {
+        return source >= 0 && target >= 0 && find(source, target) >= 0;
+    }
+
+    /**
+     * Whether the given vertices are adjacent.
+     */
+    public boolean containsEdge(V source, V target) {
+        return adjacent(id(source), id(target));
+    }
+
+    /**
+     * An edge between the given vertices, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public E getEdge(V source, V target) {
+        int s = id(source);
+        int t = id(target);
+        int i = s >= 0 && t >= 0 ? find(s, t) : -1;
+        return i >= 0 ? (E) edges[i] : null;
+    }
+
+    /**
+     * Edges incident to the given vertex, empty if it is not part of the graph.
+     */
+    public List<E> edgesOf(V vertex) {
+        final int id = id(vertex);
+        if (id < 0) {
+            return Collections.emptyList();
+        }
+
+        return new AbstractList<E>() {
+
+            @Override
+            public E get(int k) {
+                if (k < 0 || k >= size()) {
+                    throw new IndexOutOfBoundsException();
+                }
+                return edge(id, k);
+            }
+
+            @Override
+            public int size() {
+                return degree(id);
+            }
+
+        };
+    }
+
+    // Index of a neighbour entry of source to target, or a negative value.
+    private int find(int source, int target) {
+        int low = offsets[source];
+        int high = offsets[source + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int n = neighbours[mid];
+            if (n < target) {
+                low = mid + 1;
+            } else if (n > target) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+}
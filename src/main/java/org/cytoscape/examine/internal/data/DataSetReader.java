@@ -0,0 +1,170 @@
+package org.cytoscape.examine.internal.data;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a data set from tab separated files, without Cytoscape:
+ * nodes_induced.txt (ID, Symbol, URL and Score columns, followed
+ * by one set membership column per category with '|' separated
+ * set identifiers), edges.txt (pairs of node identifiers) and
+ * sets_induced.txt (ID, Category, Score, Symbol and URL columns).
+ * Files are streamed, and identifiers of edges and memberships are
+ * resolved by their bytes, without intermediate strings.
+ */
+public class DataSetReader {
+
+    /**
+     * Read the complete data set from the given directory, which
+     * contains nodes_induced.txt, edges.txt and sets_induced.txt,
+     * or from the given snapshot file.
+     */
+    public static DataSet read(File directory) throws IOException {
+        if (directory.isFile()) {
+            return DataSetSnapshot.read(directory);
+        }
+
+        // Nodes, by identifier, and set members, by set identifier.
+        final List<HNode> nodes = new ArrayList<HNode>();
+        final TsvReader.Index<HNode> nodeIndex = new TsvReader.Index<HNode>();
+        final TsvReader.Index<List<HNode>> members = new TsvReader.Index<List<HNode>>();
+        TsvReader reader = new TsvReader(new File(directory, "nodes_induced.txt").toPath());
+        try {
+            Map<String, Integer> columns = columns(reader);
+            int idColumn = column(columns, "ID");
+            int symbolColumn = column(columns, "Symbol");
+            int urlColumn = column(columns, "URL");
+            int scoreColumn = column(columns, "Score");
+            if (urlColumn == Integer.MAX_VALUE) {
+                throw new IOException("Node table without URL column, which precedes the set columns");
+            }
+            while (reader.next()) {
+                String id = reader.string(idColumn);
+                String symbol = reader.string(symbolColumn);
+                final HNode node = new HNode(nodes.size(), null, null, id,
+                        symbol.isEmpty() ? id : symbol,
+                        reader.string(urlColumn),
+                        reader.number(scoreColumn));
+                nodes.add(node);
+                nodeIndex.put(id, node);
+
+                // Set memberships, separated by '|', per category column after the URL.
+                for (int c = urlColumn + 1; c < reader.fields(); c++) {
+                    reader.parts(c, (byte) '|', new TsvReader.PartVisitor() {
+
+                        @Override
+                        public void part(byte[] bytes, int start, int end) {
+                            List<HNode> setMembers = members.get(bytes, start, end);
+                            if (setMembers == null) {
+                                setMembers = new ArrayList<HNode>();
+                                members.put(bytes, start, end, setMembers);
+                            }
+                            setMembers.add(node);
+                        }
+
+                    });
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Graph.
+        UndirectedGraph<HNode, DefaultEdge> graph = new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+        for (HNode node: nodes) {
+            graph.addVertex(node);
+        }
+        reader = new TsvReader(new File(directory, "edges.txt").toPath());
+        try {
+            while (reader.next()) {
+                HNode source = reader.lookup(nodeIndex, 0);
+                HNode target = reader.lookup(nodeIndex, 1);
+                if (source != null && target != null && source != target) {
+                    graph.addEdge(source, target);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Sets with members, by category, names made unique.
+        Map<String, List<HSet>> categorySets = new LinkedHashMap<String, List<HSet>>();
+        Set<String> names = new HashSet<String>();
+        reader = new TsvReader(new File(directory, "sets_induced.txt").toPath());
+        try {
+            Map<String, Integer> columns = columns(reader);
+            int idColumn = column(columns, "ID");
+            int categoryColumn = column(columns, "Category");
+            int scoreColumn = column(columns, "Score");
+            int symbolColumn = column(columns, "Symbol");
+            int urlColumn = column(columns, "URL");
+            while (reader.next()) {
+                List<HNode> setMembers = reader.lookup(members, idColumn);
+                if (setMembers == null) {
+                    continue;
+                }
+
+                String name = reader.string(symbolColumn);
+                if (name.isEmpty() || !names.add(name)) {
+                    name = name + " (" + reader.string(idColumn) + ")";
+                    names.add(name);
+                }
+
+                HSet set = new HSet(null, name,
+                        reader.number(scoreColumn),
+                        reader.string(urlColumn),
+                        setMembers);
+                for (HNode node: setMembers) {
+                    node.sets.add(set);
+                }
+
+                String category = reader.string(categoryColumn);
+                List<HSet> sets = categorySets.get(category);
+                if (sets == null) {
+                    sets = new ArrayList<HSet>();
+                    categorySets.put(category, sets);
+                }
+                sets.add(set);
+            }
+        } finally {
+            reader.close();
+        }
+
+        Map<String, HCategory> categories = new LinkedHashMap<String, HCategory>();
+        for (Map.Entry<String, List<HSet>> entry: categorySets.entrySet()) {
+            categories.put(entry.getKey(),
+                    new HCategory(null, entry.getKey(), entry.getValue(), entry.getValue().size()));
+        }
+
+        return new DataSet(new SuperNetwork(null, graph), categories);
+    }
+
+    // Column indices by name, from the header line.
+    private static Map<String, Integer> columns(TsvReader reader) throws IOException {
+        Map<String, Integer> columns = new HashMap<String, Integer>();
+        if (reader.next()) {
+            for (int i = 0; i < reader.fields(); i++) {
+                columns.put(reader.string(i), i);
+            }
+        }
+        return columns;
+    }
+
+    // Index of the given column, or an absent column.
+    private static int column(Map<String, Integer> columns, String name) {
+        Integer column = columns.get(name);
+        return column == null ? Integer.MAX_VALUE : column;
+    }
+
+}
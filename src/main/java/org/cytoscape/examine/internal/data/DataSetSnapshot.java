@@ -0,0 +1,384 @@
+package org.cytoscape.examine.internal.data;
+
+import org.jgrapht.Graph;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of a data set, which is loaded through a memory
+ * mapping of the file, such that a snapshot is read from the page cache
+ * that is shared by all processes on a host. A snapshot consists of a
+ * header with counts, of which the network vertices come first among the
+ * nodes, fixed width sections of node and set scores, string
+ * references, adjacency in compressed sparse row form and category
+ * references, followed by an interned table of UTF-8 strings and the set
+ * memberships as serialized bitmaps of node positions.
+ */
+public final class DataSetSnapshot {
+
+    // File signature, "eXamSnap".
+    private static final long MAGIC = 0x6558616d536e6170L;
+    private static final int VERSION = 1;
+
+    // Size of header: signature, version and eight counts.
+    private static final int HEADER_SIZE = 8 + 4 + 8 * 4;
+
+    // Reference of an absent string.
+    private static final int NO_STRING = -1;
+
+    /**
+     * Prevent instantiation of utility class.
+     */
+    private DataSetSnapshot() {
+
+    }
+
+    /**
+     * Write the network and categorized sets of the given data set to the given file.
+     */
+    public static void write(DataSet dataSet, File target) throws IOException {
+        Graph<HNode, DefaultEdge> graph = dataSet.superNetwork.get().graph;
+
+        // Node positions, network vertices first, then set members outside of the network.
+        List<HNode> nodes = new ArrayList<HNode>(graph.vertexSet());
+        int vertexCount = nodes.size();
+        Map<HNode, Integer> positions = new HashMap<HNode, Integer>();
+        for (HNode node : nodes) {
+            positions.put(node, positions.size());
+        }
+        List<HSet> sets = new ArrayList<HSet>();
+        List<Integer> setCategories = new ArrayList<Integer>();
+        List<HCategory> categories = new ArrayList<HCategory>(dataSet.categories.get().values());
+        for (int c = 0; c < categories.size(); c++) {
+            for (HSet set : categories.get(c).members) {
+                sets.add(set);
+                setCategories.add(c);
+                for (HNode node : set.elements) {
+                    if (!positions.containsKey(node)) {
+                        positions.put(node, positions.size());
+                        nodes.add(node);
+                    }
+                }
+            }
+        }
+
+        // Adjacency, every edge at its lower end point.
+        int[] offsets = new int[nodes.size() + 1];
+        List<DefaultEdge> edges = new ArrayList<DefaultEdge>(graph.edgeSet());
+        int[] lower = new int[edges.size()];
+        int[] upper = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            int s = positions.get(graph.getEdgeSource(edges.get(i)));
+            int t = positions.get(graph.getEdgeTarget(edges.get(i)));
+            lower[i] = Math.min(s, t);
+            upper[i] = Math.max(s, t);
+            offsets[lower[i] + 1]++;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[edges.size()];
+        int[] fill = offsets.clone();
+        for (int i = 0; i < edges.size(); i++) {
+            targets[fill[lower[i]]++] = upper[i];
+        }
+
+        // Interned strings.
+        Strings strings = new Strings();
+        int[] nodeRefs = new int[3 * nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            HNode node = nodes.get(i);
+            nodeRefs[3 * i] = strings.intern(node.id);
+            nodeRefs[3 * i + 1] = strings.intern(node.name);
+            nodeRefs[3 * i + 2] = strings.intern(node.url);
+        }
+        int[] setRefs = new int[3 * sets.size()];
+        Bitmap[] memberships = new Bitmap[sets.size()];
+        int[] bitmapOffsets = new int[sets.size() + 1];
+        for (int i = 0; i < sets.size(); i++) {
+            HSet set = sets.get(i);
+            setRefs[3 * i] = strings.intern(set.name);
+            setRefs[3 * i + 1] = strings.intern(set.url);
+            setRefs[3 * i + 2] = setCategories.get(i);
+
+            int[] members = new int[set.elements.size()];
+            for (int m = 0; m < members.length; m++) {
+                members[m] = positions.get(set.elements.get(m));
+            }
+            memberships[i] = Bitmap.of(members);
+            bitmapOffsets[i + 1] = bitmapOffsets[i] + memberships[i].serializedSize();
+        }
+        int[] categoryRefs = new int[2 * categories.size()];
+        for (int c = 0; c < categories.size(); c++) {
+            categoryRefs[2 * c] = strings.intern(categories.get(c).name);
+            categoryRefs[2 * c + 1] = categories.get(c).maxSize;
+        }
+        byte[] stringBytes = strings.bytes();
+
+        // Fixed width sections, then variable width sections.
+        long size = HEADER_SIZE +
+                8L * (nodes.size() + sets.size()) +
+                4L * (strings.offsets.size() + nodeRefs.length + offsets.length + targets.length +
+                      setRefs.length + bitmapOffsets.length + categoryRefs.length) +
+                stringBytes.length + bitmapOffsets[sets.size()];
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Data set too large for a snapshot");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+
+        out.putLong(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(strings.offsets.size() - 1);
+        out.putInt(nodes.size());
+        out.putInt(vertexCount);
+        out.putInt(targets.length);
+        out.putInt(sets.size());
+        out.putInt(categories.size());
+        out.putInt(stringBytes.length);
+        out.putInt(bitmapOffsets[sets.size()]);
+
+        for (HNode node : nodes) {
+            out.putDouble(node.score);
+        }
+        for (HSet set : sets) {
+            out.putDouble(set.score);
+        }
+        for (int offset : strings.offsets) {
+            out.putInt(offset);
+        }
+        putInts(out, nodeRefs);
+        putInts(out, offsets);
+        putInts(out, targets);
+        putInts(out, setRefs);
+        putInts(out, bitmapOffsets);
+        putInts(out, categoryRefs);
+        out.put(stringBytes);
+        for (Bitmap membership : memberships) {
+            membership.write(out);
+        }
+        out.flip();
+
+        FileChannel channel = FileChannel.open(target.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Read a data set from the given snapshot file, through views of its memory mapping.
+     */
+    public static DataSet read(File source) throws IOException {
+        ByteBuffer in;
+        FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        try {
+            // The mapping remains valid after the channel is closed.
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            channel.close();
+        }
+
+        if (in.remaining() < HEADER_SIZE || in.getLong() != MAGIC) {
+            throw new IOException(source + " is not a data set snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException(source + " has unsupported snapshot version " + version);
+        }
+        int stringCount = in.getInt();
+        int nodeCount = in.getInt();
+        int vertexCount = in.getInt();
+        int edgeCount = in.getInt();
+        int setCount = in.getInt();
+        int categoryCount = in.getInt();
+        int stringBytes = in.getInt();
+        int bitmapBytes = in.getInt();
+
+        // Section views.
+        DoubleBuffer nodeScores = doubles(in, nodeCount);
+        DoubleBuffer setScores = doubles(in, setCount);
+        IntBuffer stringOffsets = ints(in, stringCount + 1);
+        IntBuffer nodeRefs = ints(in, 3 * nodeCount);
+        IntBuffer offsets = ints(in, nodeCount + 1);
+        IntBuffer targets = ints(in, edgeCount);
+        IntBuffer setRefs = ints(in, 3 * setCount);
+        IntBuffer bitmapOffsets = ints(in, setCount + 1);
+        IntBuffer categoryRefs = ints(in, 2 * categoryCount);
+        Strings strings = new Strings(stringOffsets, slice(in, stringBytes), stringCount);
+        ByteBuffer bitmaps = slice(in, bitmapBytes);
+
+        // Nodes, of which the leading ones are network vertices, and network.
+        HNode[] nodes = new HNode[nodeCount];
+        UndirectedGraph<HNode, DefaultEdge> graph = new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new HNode(i, null, null,
+                    strings.get(nodeRefs.get(3 * i)),
+                    strings.get(nodeRefs.get(3 * i + 1)),
+                    strings.get(nodeRefs.get(3 * i + 2)),
+                    nodeScores.get(i));
+            if (i < vertexCount) {
+                graph.addVertex(nodes[i]);
+            }
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            for (int e = offsets.get(i); e < offsets.get(i + 1); e++) {
+                graph.addEdge(nodes[i], nodes[targets.get(e)]);
+            }
+        }
+
+        // Sets, registered with their members, by category.
+        List<List<HSet>> categorySets = new ArrayList<List<HSet>>();
+        for (int c = 0; c < categoryCount; c++) {
+            categorySets.add(new ArrayList<HSet>());
+        }
+        for (int i = 0; i < setCount; i++) {
+            bitmaps.position(bitmapOffsets.get(i));
+            int[] positions = Bitmap.read(bitmaps).toArray();
+            List<HNode> members = new ArrayList<HNode>(positions.length);
+            for (int position : positions) {
+                members.add(nodes[position]);
+            }
+
+            HSet set = new HSet(null,
+                    strings.get(setRefs.get(3 * i)),
+                    setScores.get(i),
+                    strings.get(setRefs.get(3 * i + 1)),
+                    members);
+            for (HNode node : members) {
+                node.sets.add(set);
+            }
+            categorySets.get(setRefs.get(3 * i + 2)).add(set);
+        }
+
+        Map<String, HCategory> categories = new LinkedHashMap<String, HCategory>();
+        for (int c = 0; c < categoryCount; c++) {
+            String name = strings.get(categoryRefs.get(2 * c));
+            categories.put(name, new HCategory(null, name, categorySets.get(c), categoryRefs.get(2 * c + 1)));
+        }
+
+        return new DataSet(new SuperNetwork(null, graph), categories);
+    }
+
+    /**
+     * Write a snapshot of the data set in the given directory (or snapshot)
+     * to the given file.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DataSetSnapshot <data directory> <snapshot file>");
+            System.exit(1);
+        }
+
+        DataSet dataSet = DataSetReader.read(new File(args[0]));
+        File target = new File(args[1]);
+        write(dataSet, target);
+        System.out.println("Wrote " + target + " (" + target.length() + " bytes)");
+    }
+
+    private static void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer().put(values);
+        out.position(out.position() + 4 * values.length);
+    }
+
+    // View of the given number of bytes at the position, advancing past them.
+    private static ByteBuffer slice(ByteBuffer in, int length) {
+        ByteBuffer view = in.slice();
+        view.limit(length);
+        in.position(in.position() + length);
+        return view;
+    }
+
+    private static IntBuffer ints(ByteBuffer in, int count) {
+        return slice(in, 4 * count).asIntBuffer();
+    }
+
+    private static DoubleBuffer doubles(ByteBuffer in, int count) {
+        return slice(in, 8 * count).asDoubleBuffer();
+    }
+
+    // Interned string table, built for writing or viewed for reading.
+    private static class Strings {
+
+        // Writing: string indices and byte offsets.
+        private final Map<String, Integer> indices = new HashMap<String, Integer>();
+        private final List<String> values = new ArrayList<String>();
+        final List<Integer> offsets = new ArrayList<Integer>();
+
+        // Reading: views of offsets and bytes, and decoded strings.
+        private final IntBuffer offsetView;
+        private final ByteBuffer bytesView;
+        private final String[] decoded;
+
+        Strings() {
+            this.offsetView = null;
+            this.bytesView = null;
+            this.decoded = null;
+            this.offsets.add(0);
+        }
+
+        Strings(IntBuffer offsetView, ByteBuffer bytesView, int count) {
+            this.offsetView = offsetView;
+            this.bytesView = bytesView;
+            this.decoded = new String[count];
+        }
+
+        int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+
+            Integer index = indices.get(value);
+            if (index == null) {
+                index = values.size();
+                indices.put(value, index);
+                values.add(value);
+                offsets.add(offsets.get(index) + value.getBytes(StandardCharsets.UTF_8).length);
+            }
+            return index;
+        }
+
+        byte[] bytes() {
+            ByteBuffer bytes = ByteBuffer.allocate(offsets.get(values.size()));
+            for (String value : values) {
+                bytes.put(value.getBytes(StandardCharsets.UTF_8));
+            }
+            return bytes.array();
+        }
+
+        // Decode every string once, directly from the mapping.
+        String get(int index) {
+            if (index == NO_STRING) {
+                return null;
+            }
+
+            if (decoded[index] == null) {
+                ByteBuffer view = bytesView.duplicate();
+                view.limit(offsetView.get(index + 1));
+                view.position(offsetView.get(index));
+                decoded[index] = StandardCharsets.UTF_8.decode(view).toString();
+            }
+            return decoded[index];
+        }
+
+    }
+
+}
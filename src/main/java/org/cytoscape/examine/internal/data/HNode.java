@@ -10,6 +10,9 @@ import org.cytoscape.model.CyRow;
  */
 public class HNode extends HElement {
     
+    // Dense integer identifier, unique among the nodes of a data set, for bitmap sets.
+    public final int index;
+    
     // CyNode.
     public final CyNode cyNode;
     
@@ -26,9 +29,11 @@ public class HNode extends HElement {
     public final Set<HSet> sets;
     
     /**
-     * Base constructor, bare data.
+     * Base constructor, bare data. The index is the position of
+     * the node among the nodes of its data set.
      */
-    public HNode(CyNode cyNode,
+    public HNode(int index,
+                 CyNode cyNode,
                  CyRow cyRow,
                  String id,
                  String name,
@@ -36,6 +41,7 @@ public class HNode extends HElement {
                  double score) {
         super(name, url);
         
+        this.index = index;
         this.id = id;
         this.score = score;
         this.cyNode = cyNode;
@@ -1,9 +1,7 @@
 package org.cytoscape.examine.internal.data;
 
-import java.util.HashSet;
 import java.util.List;
 
-import java.util.Set;
 import org.cytoscape.group.CyGroup;
 
 /**
@@ -17,9 +15,9 @@ public class HSet extends HElement {
     // Optional score (lower is better -> p-value).
     public final double score;
     
-    // Wrapped set.
+    // Wrapped set, as list and as bitmap of node indices.
     public final List<HNode> elements;
-    public final Set<HNode> set;
+    public final Bitmap members;
     
     /**
      * Base constructor.
@@ -30,7 +28,19 @@ public class HSet extends HElement {
         this.cyGroup = cyGroup;
         this.score = score; // Double.isNaN(score) || score > 0.9 ? 0.9 : score; // Default score to 1.
         this.elements = members;
-        this.set = new HashSet<HNode>(members);
+        
+        int[] indices = new int[members.size()];
+        for(int i = 0; i < indices.length; i++) {
+            indices[i] = members.get(i).index;
+        }
+        this.members = Bitmap.of(indices);
+    }
+    
+    /**
+     * Whether the given node is a member.
+     */
+    public boolean contains(HNode node) {
+        return members.contains(node.index);
     }
     
     /**
@@ -0,0 +1,613 @@
+package org.cytoscape.examine.internal.data;
+
+import org.cytoscape.examine.internal.Constants;
+import org.cytoscape.examine.internal.settings.NetworkSettings;
+import org.cytoscape.group.CyGroup;
+import org.cytoscape.group.CyGroupManager;
+import org.cytoscape.model.CyColumn;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.events.RowSetRecord;
+import org.cytoscape.model.events.RowsSetEvent;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Data set of a Cytoscape network that is maintained across visualizations.
+ * Selection, row, edge and group changes are recorded as they arrive and are
+ * applied on refresh, which publishes a data set of fresh elements when
+ * there are changes. Published data sets are not affected by later refreshes,
+ * such that open visualizations keep the data that they were opened with.
+ * Only changed nodes and groups are read from Cytoscape again, and sets are
+ * indexed by their member nodes such that publishing only visits the sets
+ * that contain selected nodes. A refresh after a small selection change is
+ * therefore proportional to that change and the size of the published data
+ * set, rather than to the total membership of all sets.
+ */
+public class IncrementalDataSet {
+
+    // Maintained network.
+    private final CyNetwork cyNetwork;
+
+    private final CyGroupManager groupManager;
+
+    // Last published network and categories.
+    private SuperNetwork publishedNetwork;
+    private Map<String, HCategory> publishedCategories;
+
+    // Selected regular nodes, in selection order, and selected group nodes.
+    private final Map<CyNode, NodeRecord> nodes = new LinkedHashMap<CyNode, NodeRecord>();
+    private final Set<CyNode> selectedGroupNodes = new HashSet<CyNode>();
+
+    // Edges between selected nodes.
+    private final Set<CyEdge> edges = new LinkedHashSet<CyEdge>();
+
+    // Categories, and member sets by group and by group node.
+    private final List<CategoryRecord> categories = new ArrayList<CategoryRecord>();
+    private final Map<CyGroup, SetRecord> sets = new HashMap<CyGroup, SetRecord>();
+    private final Map<CyNode, CyGroup> setGroups = new HashMap<CyNode, CyGroup>();
+    private final Set<CyGroup> categoryGroups = new HashSet<CyGroup>();
+
+    // Categories by set group, and set groups by member node.
+    private final Map<CyGroup, List<CategoryRecord>> setCategories = new HashMap<CyGroup, List<CategoryRecord>>();
+    private final Map<CyNode, Set<CyGroup>> memberSets = new HashMap<CyNode, Set<CyGroup>>();
+
+    // Pending changes.
+    private final Map<CyNode, Boolean> selectionChanges = new LinkedHashMap<CyNode, Boolean>();
+    private final Set<CyNode> staleNodes = new HashSet<CyNode>();
+    private final Set<CyGroup> staleSets = new HashSet<CyGroup>();
+    private boolean staleSelection = true;
+    private boolean staleGroups = true;
+    private boolean staleAttributes = false;
+    private boolean changed = true;
+
+    // Settings that the records are derived with.
+    private String labelColumn, urlColumn, scoreColumn;
+    private List<String> groupColumns;
+
+    public IncrementalDataSet(CyNetwork cyNetwork, CyGroupManager groupManager) {
+        this.cyNetwork = cyNetwork;
+        this.groupManager = groupManager;
+        this.publishedNetwork = new SuperNetwork(
+                cyNetwork, new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class));
+        this.publishedCategories = new HashMap<String, HCategory>();
+    }
+
+    /**
+     * Apply pending changes and publish the data set if it has changed.
+     * @return The data set, which is not affected by later refreshes.
+     */
+    public synchronized DataSet refresh(NetworkSettings networkSettings) {
+        apply(networkSettings);
+
+        if (changed) {
+            publish(networkSettings);
+            changed = false;
+        }
+
+        return new DataSet(publishedNetwork, publishedCategories);
+    }
+
+    /**
+     * Apply pending changes and derive the names of the sets that a data
+     * model of the refreshed data set would select, without publishing it:
+     * selected set groups that contain selected nodes.
+     */
+    public synchronized Set<String> selectedSetNames(NetworkSettings networkSettings) {
+        apply(networkSettings);
+
+        Set<String> names = new HashSet<String>();
+        for (CyNode groupNode : selectedGroupNodes) {
+            CyGroup group = setGroups.get(groupNode);
+            if (group == null) continue;
+
+            SetRecord set = sets.get(group);
+            for (CyNode member : set.members) {
+                if (nodes.containsKey(member)) {
+                    names.add(set.name);
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Record changes of the node table of the network.
+     */
+    public synchronized void rowsSet(RowsSetEvent e) {
+        CyTable nodeTable = cyNetwork.getDefaultNodeTable();
+        Set<String> attributes = new HashSet<String>(
+                Arrays.asList(CyNetwork.NAME, labelColumn, urlColumn, scoreColumn));
+
+        if (e.getSource() != nodeTable) {
+            // Shared attributes without row to node correspondence.
+            for (String column : attributes) {
+                if (column != null && e.containsColumn(column)) {
+                    staleAttributes = true;
+                    staleSets.addAll(sets.keySet());
+                    changed = true;
+                    return;
+                }
+            }
+            return;
+        }
+
+        for (RowSetRecord record : e.getPayloadCollection()) {
+            String column = record.getColumn();
+            boolean isSelection = column.equals(CyNetwork.SELECTED);
+            if (!isSelection && !attributes.contains(column)) {
+                continue;
+            }
+
+            CyNode node = cyNetwork.getNode(record.getRow().get(CyNetwork.SUID, Long.class));
+            if (node == null) {
+                continue;
+            }
+
+            if (isSelection) {
+                selectionChanges.put(node, Boolean.TRUE.equals(record.getValue()));
+            } else if (setGroups.containsKey(node)) {
+                staleSets.add(setGroups.get(node));
+            } else if (nodes.containsKey(node)) {
+                staleNodes.add(node);
+            } else {
+                // Unselected nodes are read when they are selected.
+                continue;
+            }
+            changed = true;
+        }
+    }
+
+    /**
+     * Record edges that have been added to the given network.
+     */
+    public synchronized void edgesAdded(CyNetwork network, Collection<CyEdge> addedEdges) {
+        if (network != cyNetwork) {
+            return;
+        }
+
+        for (CyEdge edge : addedEdges) {
+            if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getTarget())) {
+                edges.add(edge);
+                changed = true;
+            }
+        }
+    }
+
+    /**
+     * Record removal of nodes or edges from the given network, which
+     * does not identify the removed elements.
+     */
+    public synchronized void elementsRemoved(CyNetwork network) {
+        if (network == cyNetwork) {
+            staleSelection = true;
+            changed = true;
+        }
+    }
+
+    /**
+     * Record a change of the member nodes of the given group.
+     */
+    public synchronized void groupChanged(CyGroup group) {
+        if (sets.containsKey(group)) {
+            staleSets.add(group);
+            changed = true;
+        } else if (categoryGroups.contains(group)) {
+            groupsChanged();
+        }
+    }
+
+    /**
+     * Record addition or removal of groups.
+     */
+    public synchronized void groupsChanged() {
+        staleGroups = true;
+        changed = true;
+    }
+
+    // Apply pending changes to the records.
+    private void apply(NetworkSettings networkSettings) {
+        updateSettings(networkSettings);
+
+        // Guard against selection events that have not been delivered.
+        CyTable nodeTable = cyNetwork.getDefaultNodeTable();
+        if (!staleSelection &&
+                nodeTable.countMatchingRows(CyNetwork.SELECTED, true) !=
+                nodes.size() + selectedGroupNodes.size() + pendingSelections()) {
+            staleSelection = true;
+        }
+
+        if (staleGroups) {
+            scanGroups(networkSettings);
+        } else {
+            for (CyGroup group : staleSets) {
+                SetRecord record = readSet(group);
+                if (record != null) {
+                    putSet(group, record);
+                }
+            }
+        }
+        staleSets.clear();
+
+        if (staleSelection) {
+            scanSelection();
+        } else {
+            for (Map.Entry<CyNode, Boolean> change : selectionChanges.entrySet()) {
+                if (change.getValue()) {
+                    select(change.getKey());
+                } else {
+                    deselect(change.getKey());
+                }
+            }
+        }
+        selectionChanges.clear();
+
+        // Attributes of changed nodes.
+        for (CyNode node : staleAttributes ? new ArrayList<CyNode>(nodes.keySet()) : staleNodes) {
+            if (nodes.containsKey(node)) {
+                NodeRecord record = readNode(node);
+                if (record == null) {
+                    deselect(node);
+                } else {
+                    nodes.put(node, record);
+                }
+            }
+        }
+        staleNodes.clear();
+        staleAttributes = false;
+    }
+
+    // Derive everything again when the settings that records depend on have changed.
+    private void updateSettings(NetworkSettings networkSettings) {
+        List<String> newGroupColumns = new ArrayList<String>();
+        for (CyColumn column : networkSettings.getAllGroupColumns()) {
+            newGroupColumns.add(column.getName());
+        }
+        if (!newGroupColumns.equals(groupColumns)) {
+            groupColumns = newGroupColumns;
+            staleGroups = true;
+            changed = true;
+        }
+
+        String newLabelColumn = networkSettings.getSelectedLabelColumnName();
+        String newURLColumn = networkSettings.getSelectedURLColumnName();
+        String newScoreColumn = networkSettings.getSelectedScoreColumnName();
+        if (!Objects.equals(newLabelColumn, labelColumn) ||
+                !Objects.equals(newURLColumn, urlColumn) ||
+                !Objects.equals(newScoreColumn, scoreColumn)) {
+            labelColumn = newLabelColumn;
+            urlColumn = newURLColumn;
+            scoreColumn = newScoreColumn;
+            staleAttributes = true;
+            staleGroups = true;
+            changed = true;
+        }
+    }
+
+    // Number of pending selections minus deselections, relative to the maintained selection.
+    private int pendingSelections() {
+        int count = 0;
+        for (Map.Entry<CyNode, Boolean> change : selectionChanges.entrySet()) {
+            boolean isSelected = nodes.containsKey(change.getKey()) ||
+                                 selectedGroupNodes.contains(change.getKey());
+            if (change.getValue() && !isSelected) {
+                count++;
+            } else if (!change.getValue() && isSelected) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    // Derive selection from scratch.
+    private void scanSelection() {
+        nodes.clear();
+        selectedGroupNodes.clear();
+        edges.clear();
+
+        for (CyRow row : cyNetwork.getDefaultNodeTable().getMatchingRows(CyNetwork.SELECTED, true)) {
+            CyNode node = cyNetwork.getNode(row.get(CyNetwork.SUID, Long.class));
+            if (node != null) {
+                select(node);
+            }
+        }
+
+        staleSelection = false;
+    }
+
+    private void select(CyNode node) {
+        if (groupManager.isGroup(node, cyNetwork)) {
+            selectedGroupNodes.add(node);
+            return;
+        }
+        if (nodes.containsKey(node) || !cyNetwork.containsNode(node)) {
+            return;
+        }
+
+        NodeRecord record = readNode(node);
+        if (record == null) {
+            return;
+        }
+        nodes.put(node, record);
+
+        // Edges to selected nodes, including self-loops.
+        for (CyEdge edge : cyNetwork.getAdjacentEdgeIterable(node, CyEdge.Type.ANY)) {
+            CyNode other = edge.getSource() == node ? edge.getTarget() : edge.getSource();
+            if (nodes.containsKey(other)) {
+                edges.add(edge);
+            }
+        }
+    }
+
+    private void deselect(CyNode node) {
+        selectedGroupNodes.remove(node);
+        if (nodes.remove(node) == null) {
+            return;
+        }
+
+        if (cyNetwork.containsNode(node)) {
+            for (CyEdge edge : cyNetwork.getAdjacentEdgeIterable(node, CyEdge.Type.ANY)) {
+                edges.remove(edge);
+            }
+        } else {
+            for (Iterator<CyEdge> it = edges.iterator(); it.hasNext(); ) {
+                CyEdge edge = it.next();
+                if (edge.getSource() == node || edge.getTarget() == node) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    // Derive categories and their sets from scratch.
+    private void scanGroups(NetworkSettings networkSettings) {
+        categories.clear();
+        sets.clear();
+        setGroups.clear();
+        setCategories.clear();
+        memberSets.clear();
+        categoryGroups.clear();
+
+        CyTable nodeTable = cyNetwork.getDefaultNodeTable();
+        Set<CyGroup> groups = groupManager.getGroupSet(cyNetwork);
+        for (CyGroup catG : groups) {
+            CyRow row = nodeTable.getRow(catG.getGroupNode().getSUID());
+            String name = row == null ? null : row.get(CyNetwork.NAME, String.class);
+            if (name == null || !name.startsWith(Constants.CATEGORY_PREFIX)) continue;
+
+            // Category column.
+            String catName = name.substring(Constants.CATEGORY_PREFIX.length());
+            CyColumn categoryColumn = null;
+            for (CyColumn column : networkSettings.getAllGroupColumns()) {
+                if (catName.equals(column.getName())) {
+                    categoryColumn = column;
+                    break;
+                }
+            }
+            if (categoryColumn == null) continue;
+
+            // Member sets.
+            List<CyGroup> members = new ArrayList<CyGroup>();
+            for (CyNode mCN : catG.getNodeList()) {
+                CyGroup mG = groupManager.getGroup(mCN, cyNetwork);
+                if (mG == null) continue;
+
+                if (!sets.containsKey(mG)) {
+                    SetRecord record = readSet(mG);
+                    if (record == null) continue;
+                    putSet(mG, record);
+                    setGroups.put(mCN, mG);
+                }
+                members.add(mG);
+            }
+
+            CategoryRecord category = new CategoryRecord(catG, catName, categoryColumn, members);
+            categories.add(category);
+            categoryGroups.add(catG);
+            for (CyGroup mG : members) {
+                List<CategoryRecord> memberCategories = setCategories.get(mG);
+                if (memberCategories == null) {
+                    memberCategories = new ArrayList<CategoryRecord>();
+                    setCategories.put(mG, memberCategories);
+                }
+                memberCategories.add(category);
+            }
+        }
+
+        staleGroups = false;
+    }
+
+    // Replace the record of the given set group, and index its member nodes.
+    private void putSet(CyGroup group, SetRecord record) {
+        SetRecord old = sets.put(group, record);
+        if (old != null) {
+            for (CyNode node : old.members) {
+                Set<CyGroup> groups = memberSets.get(node);
+                if (groups != null) {
+                    groups.remove(group);
+                    if (groups.isEmpty()) {
+                        memberSets.remove(node);
+                    }
+                }
+            }
+        }
+
+        for (CyNode node : record.members) {
+            Set<CyGroup> groups = memberSets.get(node);
+            if (groups == null) {
+                groups = new HashSet<CyGroup>();
+                memberSets.put(node, groups);
+            }
+            groups.add(group);
+        }
+    }
+
+    private NodeRecord readNode(CyNode node) {
+        CyRow row = cyNetwork.getDefaultNodeTable().getRow(node.getSUID());
+        if (row == null) {
+            return null;
+        }
+
+        return new NodeRecord(
+                row,
+                row.get(CyNetwork.NAME, String.class),
+                labelColumn == null ? null : row.get(labelColumn, String.class),
+                urlColumn == null ? null : row.get(urlColumn, String.class));
+    }
+
+    private SetRecord readSet(CyGroup group) {
+        CyRow row = cyNetwork.getDefaultNodeTable().getRow(group.getGroupNode().getSUID());
+        if (row == null) {
+            return null;
+        }
+
+        // Try to get symbol name, or fall back to id.
+        String name = labelColumn == null ? null : row.get(labelColumn, String.class);
+        if (name == null || name.trim().isEmpty()) {
+            name = row.get(CyNetwork.NAME, String.class);
+        }
+
+        Double bScore = scoreColumn == null ? null : row.get(scoreColumn, Double.class);
+        double score = bScore == null ? Double.NaN : bScore;
+
+        String url = urlColumn == null ? null : row.get(urlColumn, String.class);
+
+        return new SetRecord(name, score, url, new ArrayList<CyNode>(group.getNodeList()));
+    }
+
+    // Publish fresh elements, such that earlier data sets remain unaffected.
+    private void publish(NetworkSettings networkSettings) {
+        UndirectedGraph<HNode, DefaultEdge> superGraph =
+                new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+
+        // Nodes.
+        Map<CyNode, HNode> nM = new HashMap<CyNode, HNode>();
+        for (Map.Entry<CyNode, NodeRecord> entry : nodes.entrySet()) {
+            NodeRecord record = entry.getValue();
+            HNode hN = new HNode(nM.size(), entry.getKey(), record.row, record.id, record.name, record.url, 0);
+            superGraph.addVertex(hN);
+            nM.put(entry.getKey(), hN);
+        }
+
+        // Edges, of which removed ones are left out.
+        for (Iterator<CyEdge> it = edges.iterator(); it.hasNext(); ) {
+            CyEdge cyEdge = it.next();
+            HNode sHN = nM.get(cyEdge.getSource());
+            HNode tHN = nM.get(cyEdge.getTarget());
+            if (sHN == null || tHN == null || !cyNetwork.containsEdge(cyEdge)) {
+                it.remove();
+            } else {
+                superGraph.addEdge(sHN, tHN);
+            }
+        }
+
+        // Selected members of the sets that contain selected nodes, via the member index.
+        Map<CyGroup, List<HNode>> setMembers = new LinkedHashMap<CyGroup, List<HNode>>();
+        for (CyNode cyNode : nodes.keySet()) {
+            Set<CyGroup> groups = memberSets.get(cyNode);
+            if (groups == null) continue;
+
+            for (CyGroup mG : groups) {
+                List<HNode> mmNS = setMembers.get(mG);
+                if (mmNS == null) {
+                    mmNS = new ArrayList<HNode>();
+                    setMembers.put(mG, mmNS);
+                }
+                mmNS.add(nM.get(cyNode));
+            }
+        }
+
+        // Categories with those sets, sets with no nodes are not shown.
+        Map<CategoryRecord, List<HSet>> categorySets = new HashMap<CategoryRecord, List<HSet>>();
+        for (CategoryRecord category : categories) {
+            categorySets.put(category, new ArrayList<HSet>());
+        }
+        for (Map.Entry<CyGroup, List<HNode>> entry : setMembers.entrySet()) {
+            CyGroup mG = entry.getKey();
+            SetRecord set = sets.get(mG);
+            for (CategoryRecord category : setCategories.get(mG)) {
+                List<HNode> mmNS = new ArrayList<HNode>(entry.getValue());
+                HSet mHS = new HSet(mG, set.name, set.score, set.url, mmNS);
+                categorySets.get(category).add(mHS);
+
+                // Register set with its members.
+                for (HNode mHN : mmNS) {
+                    mHN.sets.add(mHS);
+                }
+            }
+        }
+
+        Map<String, HCategory> cs = new HashMap<String, HCategory>();
+        for (CategoryRecord category : categories) {
+            cs.put(category.name, new HCategory(category.group, category.name, categorySets.get(category),
+                                                networkSettings.getColumnSize(category.column)));
+        }
+
+        publishedNetwork = new SuperNetwork(cyNetwork, superGraph);
+        publishedCategories = cs;
+    }
+
+    // Attributes of a selected node.
+    private static class NodeRecord {
+        final CyRow row;
+        final String id;
+        final String name;
+        final String url;
+
+        NodeRecord(CyRow row, String id, String name, String url) {
+            this.row = row;
+            this.id = id;
+            this.name = name;
+            this.url = url;
+        }
+    }
+
+    // Attributes and member nodes of a set group.
+    private static class SetRecord {
+        final String name;
+        final double score;
+        final String url;
+        final List<CyNode> members;
+
+        SetRecord(String name, double score, String url, List<CyNode> members) {
+            this.name = name;
+            this.score = score;
+            this.url = url;
+            this.members = members;
+        }
+    }
+
+    // Category with its set groups, in group order.
+    private static class CategoryRecord {
+        final CyGroup group;
+        final String name;
+        final CyColumn column;
+        final List<CyGroup> members;
+
+        CategoryRecord(CyGroup group, String name, CyColumn column, List<CyGroup> members) {
+            this.group = group;
+            this.name = name;
+            this.column = column;
+            this.members = members;
+        }
+    }
+
+}
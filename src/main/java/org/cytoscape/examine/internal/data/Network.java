@@ -15,6 +15,9 @@ public class Network {
     // Wrapped graph.
     public final UndirectedGraph<HNode, DefaultEdge> graph;
     
+    // Compact form of graph, derived on demand.
+    private volatile CompactGraph<HNode, DefaultEdge> compact;
+    
     /**
      * Base constructor.
      */
@@ -23,6 +26,19 @@ public class Network {
         this.graph = graph;
     }
     
+    /**
+     * Compact form of the wrapped graph, for adjacency tests in hot loops.
+     * The graph is immutable, so a compact form derived concurrently is equal.
+     */
+    public CompactGraph<HNode, DefaultEdge> compact() {
+        CompactGraph<HNode, DefaultEdge> result = compact;
+        if(result == null) {
+            result = CompactGraph.of(graph);
+            compact = result;
+        }
+        return result;
+    }
+    
     /**
      * Induce subgraph from super network.
      */
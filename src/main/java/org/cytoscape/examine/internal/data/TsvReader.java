@@ -0,0 +1,297 @@
+package org.cytoscape.examine.internal.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of tab separated UTF-8 files, by line. Lines are read
+ * through a file channel into a reusable buffer and split into fields in
+ * place, such that fields are only decoded to strings on request and
+ * identifiers can be looked up by their bytes. Empty lines are skipped
+ * and fields are trimmed of surrounding white space.
+ */
+final class TsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+
+    // Buffered bytes from position until limit, the current line included.
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    // Field ranges of the current line.
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fields = 0;
+
+    TsvReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Advance to the next non-empty line, false at the end of the file.
+     */
+    boolean next() throws IOException {
+        while (true) {
+            // Line end, buffering more of the file as necessary.
+            int end = indexOf((byte) '\n', position, limit);
+            while (end < 0 && !eof) {
+                int scanned = limit - position;
+                fill();
+                end = indexOf((byte) '\n', position + scanned, limit);
+            }
+            if (end < 0) {
+                if (position == limit) {
+                    return false;
+                }
+                end = limit;
+            }
+
+            int start = position;
+            position = Math.min(end + 1, limit);
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+
+            if (end > start) {
+                split(start, end);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Number of fields of the current line.
+     */
+    int fields() {
+        return fields;
+    }
+
+    /**
+     * Whether the given field is empty or absent.
+     */
+    boolean isEmpty(int field) {
+        return field >= fields || starts[field] == ends[field];
+    }
+
+    /**
+     * Given field as string, empty if it is absent.
+     */
+    String string(int field) {
+        return isEmpty(field) ?
+                "" :
+                new String(bytes, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Given field as number, NaN if it is absent or not a number.
+     */
+    double number(int field) {
+        String value = string(field);
+        try {
+            return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Value of the given field in the given index, null if it is absent.
+     */
+    <V> V lookup(Index<V> index, int field) {
+        return field < fields ? index.get(bytes, starts[field], ends[field]) : null;
+    }
+
+    /**
+     * Split the given field by the given separator, and pass every
+     * non-empty part to the given visitor.
+     */
+    void parts(int field, byte separator, PartVisitor visitor) {
+        if (isEmpty(field)) {
+            return;
+        }
+
+        int start = starts[field];
+        int end = ends[field];
+        while (start < end) {
+            int partEnd = indexOf(separator, start, end);
+            if (partEnd < 0) {
+                partEnd = end;
+            }
+            if (partEnd > start) {
+                visitor.part(bytes, start, partEnd);
+            }
+            start = partEnd + 1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Read more of the file, keeping the bytes from position on.
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        if (position > 0) {
+            System.arraycopy(bytes, position, bytes, 0, remaining);
+        } else if (remaining == bytes.length) {
+            bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+        }
+        position = 0;
+        limit = remaining;
+
+        int read = channel.read(ByteBuffer.wrap(bytes, limit, bytes.length - limit));
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private void split(int start, int end) {
+        fields = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || bytes[i] == '\t') {
+                if (fields == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * fields);
+                    ends = Arrays.copyOf(ends, 2 * fields);
+                }
+
+                // Trim white space.
+                int s = fieldStart;
+                int e = i;
+                while (s < e && (bytes[s] & 0xff) <= ' ') s++;
+                while (e > s && (bytes[e - 1] & 0xff) <= ' ') e--;
+                starts[fields] = s;
+                ends[fields++] = e;
+
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    private int indexOf(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visitor of the parts of a field.
+     */
+    interface PartVisitor {
+
+        void part(byte[] bytes, int start, int end);
+
+    }
+
+    /**
+     * Hash map from identifiers, as UTF-8 bytes, to values, such that
+     * identifiers of fields can be looked up without decoding them.
+     */
+    static final class Index<V> {
+
+        private byte[][] keys = new byte[64][];
+        private Object[] values = new Object[64];
+        private int size = 0;
+
+        /**
+         * Value of the given identifier bytes, null if there is none.
+         */
+        @SuppressWarnings("unchecked")
+        V get(byte[] bytes, int start, int end) {
+            int mask = keys.length - 1;
+            for (int i = hash(bytes, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+                if (equal(keys[i], bytes, start, end)) {
+                    return (V) values[i];
+                }
+            }
+            return null;
+        }
+
+        V get(String key) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            return get(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Associate the given identifier bytes with the given value.
+         */
+        void put(byte[] bytes, int start, int end, V value) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+
+            int mask = keys.length - 1;
+            int i = hash(bytes, start, end) & mask;
+            while (keys[i] != null && !equal(keys[i], bytes, start, end)) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == null) {
+                keys[i] = Arrays.copyOfRange(bytes, start, end);
+                size++;
+            }
+            values[i] = value;
+        }
+
+        void put(String key, V value) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            put(bytes, 0, bytes.length, value);
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new byte[2 * oldKeys.length][];
+            values = new Object[2 * oldKeys.length];
+
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != null) {
+                    int i = hash(oldKeys[j], 0, oldKeys[j].length) & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int hash(byte[] bytes, int start, int end) {
+            int hash = 0x811c9dc5;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ bytes[i]) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean equal(byte[] key, byte[] bytes, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != bytes[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package org.cytoscape.examine.internal.graphics;
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.LineString;
 import org.cytoscape.examine.internal.graphics.draw.Snippet;
+import org.cytoscape.examine.internal.profiling.Profiler;
 
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
@@ -17,15 +18,25 @@ import java.util.Collection;
  */
 public class AnimatedGraphics {
 
-    private final DrawManager drawManager = new DrawManager();
+    private final Profiler profiler;
+    private final DrawManager drawManager;
     private double canvasWidth = Double.POSITIVE_INFINITY;
     private double canvasHeight = Double.POSITIVE_INFINITY;
+    
+    // Scratch color components, for transitions without intermediate arrays.
+    private float[] components = new float[4];
+    
+    // Recently used strokes by weight, replaced round robin.
+    private final float[] strokeWeights = new float[8];
+    private final BasicStroke[] strokes = new BasicStroke[8];
+    private int strokeCursor;
 
     /**
      * Construct animated graphics for interactive cases.
      */
     public AnimatedGraphics() {
-
+        this.profiler = new Profiler();
+        this.drawManager = new DrawManager(profiler, new TextCache());
     }
 
     /**
@@ -34,6 +45,32 @@ public class AnimatedGraphics {
      * @param defaultGraphics The export context to render to.
      */
     public AnimatedGraphics(Graphics2D defaultGraphics) {
+        this(defaultGraphics, new Profiler());
+    }
+
+    /**
+     * Construct animated graphics to render for export cases,
+     * with timings registered in the given profiler.
+     *
+     * @param defaultGraphics The export context to render to.
+     * @param profiler The profiler to register timings in.
+     */
+    public AnimatedGraphics(Graphics2D defaultGraphics, Profiler profiler) {
+        this(defaultGraphics, profiler, new TextCache());
+    }
+
+    /**
+     * Construct animated graphics to render for export cases,
+     * with timings registered in the given profiler and text
+     * metrics shared via the given cache.
+     *
+     * @param defaultGraphics The export context to render to.
+     * @param profiler The profiler to register timings in.
+     * @param textCache The text cache to share.
+     */
+    public AnimatedGraphics(Graphics2D defaultGraphics, Profiler profiler, TextCache textCache) {
+        this.profiler = profiler;
+        this.drawManager = new DrawManager(profiler, textCache);
         drawManager.defaultGraphics = defaultGraphics;
         drawManager.setAnimated(false);
     }
@@ -42,6 +79,10 @@ public class AnimatedGraphics {
         return drawManager;
     }
     
+    public Profiler getProfiler() {
+        return profiler;
+    }
+    
     /**
      * Transition function for float value,
      * should only be used in a snippet.
@@ -134,6 +175,31 @@ public class AnimatedGraphics {
         }
     }
     
+    /**
+     * Draw layer of snippets, composited from its retained
+     * raster while the given content version is unchanged.
+     */
+    public void layer(Layer layer, long version) {
+        drawManager.layer(layer, version, this);
+    }
+    
+    /**
+     * Keep a snippet alive without drawing it, for example
+     * when it is part of a retained layer or culled.
+     */
+    public void retain(Snippet snippet) {
+        drawManager.retain(snippet);
+    }
+    
+    /**
+     * Keep multiple snippets of a retained layer alive.
+     */
+    public <E extends Snippet> void retain(Collection<E> snippets) {
+        for(Snippet s: snippets) {
+            drawManager.retain(s);
+        }
+    }
+    
     /**
      * Any coordinate or color changes will be transitioned
      * to gradually for a snippet.
@@ -157,6 +223,14 @@ public class AnimatedGraphics {
         drawManager.noPicking();
     }
     
+    /**
+     * Uniform scale of the current coordinate space with respect
+     * to device space, for level of detail decisions.
+     */
+    public double scaleFactor() {
+        return Math.sqrt(Math.abs(drawManager.pg.getTransform().getDeterminant()));
+    }
+    
     // Get hovered snippet.
     public Snippet hovered() {
         return drawManager.hovered;
@@ -165,18 +239,18 @@ public class AnimatedGraphics {
     // --- Begin interpolated graphics methods. ---
     
     public void draw(Shape shape) {
-        drawManager.pg.draw(shape);
+        drawManager.draw(shape);
     }
     
     public void fill(Shape shape) {
-        drawManager.pg.fill(shape);
+        drawManager.fill(shape);
     }
     
     public void drawLine(PVector origin, PVector target) {
         Path2D.Double line = new Path2D.Double();
         line.moveTo(t(origin.x), t(origin.y));
         line.lineTo(t(target.x), t(target.y));
-        drawManager.pg.draw(line);
+        drawManager.draw(line);
     }
     
     public void drawLineString(LineString lineString) {
@@ -187,7 +261,7 @@ public class AnimatedGraphics {
         for(int i = 1; i < cs.length; i++) {
             line.lineTo(t(cs[i].x), t(cs[i].y));
         }
-        drawManager.pg.draw(line);
+        drawManager.draw(line);
     }
     
     public void drawCurve(PVector origin, PVector control, PVector target) {
@@ -196,27 +270,27 @@ public class AnimatedGraphics {
         double midX = t(control.x);
         double midY = t(control.y);
         curve.curveTo(midX, midY, midX, midY, t(target.x), t(target.y));
-        drawManager.pg.draw(curve);
+        drawManager.draw(curve);
     }
     
     public void drawRect(double a, double b, double c, double d) {
-        drawManager.pg.draw(new Rectangle2D.Double(t(a), t(b), t(c), t(d)));
+        drawManager.draw(new Rectangle2D.Double(t(a), t(b), t(c), t(d)));
     }
     
     public void fillRect(double a, double b, double c, double d) {
-        drawManager.pg.fill(new Rectangle2D.Double(t(a), t(b), t(c), t(d)));
+        drawManager.fill(new Rectangle2D.Double(t(a), t(b), t(c), t(d)));
     }
 
     public void drawEllipse(double a, double b, double c, double d) {
-        drawManager.pg.draw(new Ellipse2D.Double(t(a - c), t(b - d), 2 * t(c), 2 * t(d)));
+        drawManager.draw(new Ellipse2D.Double(t(a - c), t(b - d), 2 * t(c), 2 * t(d)));
     }
     
     public void fillEllipse(double a, double b, double c, double d) {
-        drawManager.pg.fill(new Ellipse2D.Double(t(a - c), t(b - d), 2 * t(c), 2 * t(d)));
+        drawManager.fill(new Ellipse2D.Double(t(a - c), t(b - d), 2 * t(c), 2 * t(d)));
     }
     
     public void circleArc(PVector p1, PVector p2, PVector p3) {
-        drawManager.pg.draw(Shapes.getArc(t(p1), t(p2), t(p3)));
+        drawManager.draw(Shapes.getArc(t(p1.x), t(p1.y), t(p2.x), t(p2.y), t(p3.x), t(p3.y)));
     }
 
     public void pushTransform() {
@@ -264,7 +338,23 @@ public class AnimatedGraphics {
     }
 
     public void strokeWeight(double weight) {
-        drawManager.pg.setStroke(new BasicStroke((float) t(weight), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        float w = (float) t(weight);
+        
+        // Reuse stroke of equal weight.
+        BasicStroke stroke = null;
+        for(int i = 0; i < strokes.length && stroke == null; i++) {
+            if(strokes[i] != null && strokeWeights[i] == w) {
+                stroke = strokes[i];
+            }
+        }
+        if(stroke == null) {
+            stroke = new BasicStroke(w, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+            strokeWeights[strokeCursor] = w;
+            strokes[strokeCursor] = stroke;
+            strokeCursor = (strokeCursor + 1) % strokes.length;
+        }
+        
+        drawManager.pg.setStroke(stroke);
     }
     
     public void stroke(Stroke stroke) {
@@ -273,20 +363,20 @@ public class AnimatedGraphics {
 
     public void drawRect(double a, double b, double c, double d, double r) {
         double tr = t(r);
-        drawManager.pg.draw(new RoundRectangle2D.Double(t(a), t(b), t(c), t(d), tr, tr));
+        drawManager.draw(new RoundRectangle2D.Double(t(a), t(b), t(c), t(d), tr, tr));
     }
     
     public void fillRect(double a, double b, double c, double d, double r) {
         double tr = t(r);
-        drawManager.pg.fill(new RoundRectangle2D.Double(t(a), t(b), t(c), t(d), tr, tr));
+        drawManager.fill(new RoundRectangle2D.Double(t(a), t(b), t(c), t(d), tr, tr));
     }
 
     public double textAscent() {
-        return drawManager.pg.getFontMetrics().getAscent();
+        return drawManager.textAscent();
     }
 
     public double textDescent() {
-        return drawManager.pg.getFontMetrics().getDescent();
+        return drawManager.textDescent();
     }
     
     public double textHeight() {
@@ -303,7 +393,7 @@ public class AnimatedGraphics {
     }
 
     public double textWidth(String str) {
-        return (double) drawManager.pg.getFontMetrics().getStringBounds(str, drawManager.pg).getWidth();
+        return drawManager.textWidth(str);
     }
     
     // Place text with top left at the origin of the current coordinate space.
@@ -312,7 +402,7 @@ public class AnimatedGraphics {
     }
 
     public void text(String str, double x, double y) {
-        drawManager.pg.drawString(str, (float) t(x), (float) t(y));
+        drawManager.text(str, (float) t(x), (float) t(y));
     }
     
     private float alphaPresence(double alpha) {
@@ -320,18 +410,36 @@ public class AnimatedGraphics {
         return (float) java.lang.Math.max(0, java.lang.Math.min(1, alpha * presence));
     }
     
+    // Transitioned color and alpha components, in scratch array.
+    private float[] tComponents(Color color) {
+        int length = color.getColorSpace().getNumComponents() + 1;
+        if(components.length < length) {
+            components = new float[length];
+        }
+        color.getComponents(components);
+        
+        for(int i = 0; i < length; i++) {
+            components[i] = t(components[i]);
+        }
+        
+        return components;
+    }
+    
     public void color(Color color) {
-        float[] tComponents = t(color.getComponents(null));
+        float[] tComponents = tComponents(color);
+        int alpha = color.getColorSpace().getNumComponents();
         drawManager.pg.setColor(new Color(color.getColorSpace(),
                                  tComponents,
-                                 (float) alphaPresence(tComponents[tComponents.length - 1])));
+                                 (float) alphaPresence(tComponents[alpha])));
     }
     
     public void color(Color color, double alpha) {
-        float[] tComponents = t(color.getComponents(null));
+        float[] tComponents = tComponents(color);
+        int alphaIndex = color.getColorSpace().getNumComponents();
+        float tAlpha = tComponents[alphaIndex];
         drawManager.pg.setColor(new Color(color.getColorSpace(),
                                  tComponents,
-                                 (alphaPresence(t(alpha) * tComponents[tComponents.length - 1]))));
+                                 (alphaPresence(t(alpha) * tAlpha))));
     }
     
     public Color getColor() {
@@ -1,14 +1,14 @@
 package org.cytoscape.examine.internal.graphics;
 
-import org.apache.batik.dom.GenericDOMImplementation;
-import org.apache.batik.svggen.SVGGraphics2D;
 import org.cytoscape.examine.internal.graphics.draw.Snippet;
-import org.w3c.dom.DOMImplementation;
-import org.w3c.dom.Document;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.profiling.Profiler.Stage;
 
 import javax.swing.*;
 
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.KeyEvent;
@@ -19,16 +19,16 @@ import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.cytoscape.examine.internal.graphics.draw.Constants.FONT;
-import static org.cytoscape.examine.internal.graphics.draw.Constants.LABEL_FONT;
-import static org.cytoscape.examine.internal.graphics.draw.Constants.NOTE_FONT;
+import static org.cytoscape.examine.internal.graphics.draw.Constants.FRAME_INTERVAL;
+import static org.cytoscape.examine.internal.graphics.draw.Constants.loadFonts;
 
 // Graphics application.
 @SuppressWarnings("serial") //TODO: We can assume we never serialize this right?
@@ -36,6 +36,12 @@ public abstract class ApplicationFrame extends JFrame {
 
     private AnimatedGraphics animatedGraphics = new AnimatedGraphics();
     private final JPanel rootPanel;
+    
+    // Schedules the next frame while the scene is in motion.
+    private final Timer frameTimer;
+    
+    // Whether to show the profiler overlay.
+    private boolean showProfiler;
 
     protected Snippet rootSnippet;
     protected int mouseX, mouseY;
@@ -45,6 +51,9 @@ public abstract class ApplicationFrame extends JFrame {
         // Fair default size, but maximize.
         setSize(1400, 800);
         setVisible(true);
+
+        // Release the window and its resources when it is closed.
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         
         // Set title to class name by default.
         setTitle(getClass().getSimpleName());
@@ -75,8 +84,15 @@ public abstract class ApplicationFrame extends JFrame {
                                     RenderingHints.VALUE_COLOR_RENDER_QUALITY);
 
                 rootDraw();
+                
+                if(showProfiler) {
+                    drawProfiler(g2);
+                }
 
-                repaint();
+                // Keep drawing frames until transitions have come to rest.
+                if(!animatedGraphics.getDrawManager().isAtRest() && !frameTimer.isRunning()) {
+                    frameTimer.start();
+                }
             }
 
             @Override
@@ -98,6 +114,25 @@ public abstract class ApplicationFrame extends JFrame {
         rootPanel.setDoubleBuffered(true);
         setContentPane(rootPanel);
         
+        // On demand repaint, by frame timer or redraw request.
+        frameTimer = new Timer(FRAME_INTERVAL, new ActionListener() {
+
+            @Override
+            public void actionPerformed(ActionEvent ae) {
+                rootPanel.repaint();
+            }
+            
+        });
+        frameTimer.setRepeats(false);
+        animatedGraphics.getDrawManager().setRedrawRequest(new Runnable() {
+
+            @Override
+            public void run() {
+                rootPanel.repaint();
+            }
+            
+        });
+        
         // Root snippet, contains application rootDraw calls.
         rootSnippet = new Snippet() {
 
@@ -124,13 +159,14 @@ public abstract class ApplicationFrame extends JFrame {
     
     public final void setup() {
         
-        // Adapt picking buffer to canvas size.
+        // Adapt hover detection to canvas size.
         updateDimensions();
         addComponentListener(new ComponentListener() {
 
             @Override
             public void componentResized(ComponentEvent ce) {
                 updateDimensions();
+                requestRedraw();
             }
 
             @Override
@@ -156,52 +192,80 @@ public abstract class ApplicationFrame extends JFrame {
                 if(animatedGraphics.getDrawManager().hovered != null) {
                     animatedGraphics.getDrawManager().hovered.mouseWheel(mwe.getWheelRotation());
                 }
+                
+                requestRedraw();
             }
         
         });
         
-        // Load base and label fonts; load open sans and use Arial as fall-back.
-        try {
-            InputStream input = ApplicationFrame.class.getResourceAsStream("/font/OpenSans-Regular.ttf");
-            Font inputFont = Font.createFont(Font.TRUETYPE_FONT, input);
-            
-            FONT = inputFont.deriveFont(24f);
-            LABEL_FONT = inputFont.deriveFont(14f);
-            NOTE_FONT = inputFont.deriveFont(8f);
-        } catch(Exception ex) {
-            System.out.println("Font load exception: " + ex.getLocalizedMessage());
-            
-            FONT = new Font("Arial", Font.PLAIN, 18);
-            LABEL_FONT = new Font("Arial", Font.PLAIN, 14);
-            NOTE_FONT = new Font("Arial", Font.PLAIN, 8);
-        }
+        // Load base and label fonts.
+        loadFonts();
     }
 
     private void updateDimensions() {
         animatedGraphics.setCanvasWidth(getWidth());
         animatedGraphics.setCanvasHeight(getHeight());
-        animatedGraphics.getDrawManager().updatePickingBuffer(getWidth(), getHeight());
+        animatedGraphics.getDrawManager().updateCanvasSize(getWidth(), getHeight());
+    }
+
+    /**
+     * Request a redraw, for example on model changes. Frames
+     * are only drawn on request or while the scene is in motion.
+     */
+    public void requestRedraw() {
+        animatedGraphics.getDrawManager().requestRedraw();
     }
 
     public final void rootDraw() {
         DrawManager drawManager = animatedGraphics.getDrawManager();
+        Profiler profiler = animatedGraphics.getProfiler();
+        long frameStart = profiler.start();
 
         // Manager global pre rootDraw.
         drawManager.pre();
         
         // Draw to normal graphics.
+        long screenStart = profiler.start();
         drawManager.preScreen();
         animatedGraphics.snippet(rootSnippet);
-        drawManager.postScreen(animatedGraphics);
+        profiler.stop(Stage.SCREEN, screenStart);
         
-        // Draw to picking graphics.
-        drawManager.prePicking();
-        animatedGraphics.snippet(rootSnippet);
-        Snippet hovered = drawManager.updateHoveredSnippet(mouseX, mouseY);
-        setCursor(hovered == null ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        long postScreenStart = profiler.start();
+        drawManager.postScreen(animatedGraphics);
+        profiler.stop(Stage.POST_SCREEN, postScreenStart);
         
         // Manager global post rootDraw.
         drawManager.post();
+        profiler.stop(Stage.FRAME, frameStart);
+    }
+    
+    /**
+     * Timers and counters of this frame.
+     */
+    public Profiler getProfiler() {
+        return animatedGraphics.getProfiler();
+    }
+    
+    // Profiler overlay, top right.
+    private void drawProfiler(Graphics2D g) {
+        java.util.List<String> lines = getProfiler().report();
+        
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for(String line: lines) {
+            width = Math.max(width, fm.stringWidth(line));
+        }
+        int height = lines.size() * fm.getHeight();
+        int x = rootPanel.getWidth() - width - 10;
+        int y = 10;
+        
+        g.setColor(new Color(1f, 1f, 1f, 0.85f));
+        g.fillRect(x - 5, y - 5, width + 10, height + 10);
+        g.setColor(Color.BLACK);
+        for(int i = 0; i < lines.size(); i++) {
+            g.drawString(lines.get(i), x, y + i * fm.getHeight() + fm.getAscent());
+        }
     }
 
     // Input methods.
@@ -209,9 +273,23 @@ public abstract class ApplicationFrame extends JFrame {
         mouseX = me.getX();
         mouseY = me.getY();
         mouseEvent = me;
+        
+        // Hit test geometry of last draw.
+        long hitStart = getProfiler().start();
+        Snippet hovered = animatedGraphics.getDrawManager().updateHoveredSnippet(mouseX, mouseY);
+        getProfiler().stop(Stage.HIT_TEST, hitStart);
+        setCursor(hovered == null ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        
+        // Hover and interaction feedback.
+        requestRedraw();
     }
 
     public void keyPressed(KeyEvent e) {
+        // Toggle profiler overlay.
+        if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_T) {
+            showProfiler = !showProfiler;
+        }
+        
         if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_P) {
             try {
                 exportSVG();
@@ -229,34 +307,36 @@ public abstract class ApplicationFrame extends JFrame {
 
     public void keyReleased() {}
     
+    @Override
+    public void dispose() {
+        frameTimer.stop();
+        super.dispose();
+    }
+    
     // Draw commands, to be implemented.
     public abstract void draw(AnimatedGraphics graphics);
     
     // Export application paint to SVG file.
     public void exportSVG() throws IOException {
-        // Get a DOMImplementation.
-        DOMImplementation domImpl =
-          GenericDOMImplementation.getDOMImplementation();
-
-        // Create an instance of org.w3c.dom.Document.
-        String svgNS = "http://www.w3.org/2000/svg";
-        Document document = domImpl.createDocument(svgNS, "svg", null);
-
-        // Paint application to SVG structure.
-        SVGGraphics2D svgGenerator = new SVGGraphics2D(document);
-        rootPanel.paint(svgGenerator);
-        
         // Target file via dialog.
         final JFileChooser fileChooser = new JFileChooser();
         fileChooser.setName("Export SVG");
         fileChooser.setSelectedFile(new File("eXamine_export.svg"));
         int fileConfirm = fileChooser.showSaveDialog(rootPanel);
 
-        // Output to valid file.
+        // Stream application paint to valid file.
         if(fileConfirm == JFileChooser.APPROVE_OPTION) {
-            boolean useCSS = true; // we want to use CSS style attributes
-            Writer out = new FileWriter(fileChooser.getSelectedFile());
-            svgGenerator.stream(out, useCSS);
+            long exportStart = getProfiler().start();
+            Writer out = Files.newBufferedWriter(fileChooser.getSelectedFile().toPath(), StandardCharsets.UTF_8);
+            try {
+                SVGStreamGraphics svgGraphics =
+                        new SVGStreamGraphics(out, rootPanel.getWidth(), rootPanel.getHeight());
+                rootPanel.paint(svgGraphics);
+                svgGraphics.finish();
+            } finally {
+                out.close();
+            }
+            getProfiler().stop(Stage.EXPORT, exportStart);
         }
     }
 
@@ -331,6 +411,7 @@ public abstract class ApplicationFrame extends JFrame {
 
             // Delegate.
             ApplicationFrame.this.keyPressed(e);
+            requestRedraw();
         }
 
         public void keyReleased(KeyEvent e) {
@@ -341,6 +422,7 @@ public abstract class ApplicationFrame extends JFrame {
 
             // Delegate.
             ApplicationFrame.this.keyReleased(e);
+            requestRedraw();
         }
 
         public void keyTyped(KeyEvent e) {
@@ -351,6 +433,7 @@ public abstract class ApplicationFrame extends JFrame {
 
             // Delegate.
             ApplicationFrame.this.keyTyped(e);
+            requestRedraw();
         }
 //
 //        public void keyPressed() {
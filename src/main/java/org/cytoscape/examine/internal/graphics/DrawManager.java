@@ -1,19 +1,24 @@
 package org.cytoscape.examine.internal.graphics;
 
-import org.cytoscape.examine.internal.graphics.draw.PickingGraphics2D;
+import org.cytoscape.examine.internal.graphics.HitIndex.Hit;
 import org.cytoscape.examine.internal.graphics.draw.Snippet;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.profiling.Profiler.Counter;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.util.ArrayList;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map.Entry;
 
+import static java.lang.Math.abs;
 import static java.lang.Math.min;
+import static org.cytoscape.examine.internal.graphics.draw.Constants.CURSOR_DILATION_RADIUS;
 import static org.cytoscape.examine.internal.graphics.draw.Constants.MOVE_TRANSITION_DURATION;
 import static org.cytoscape.examine.internal.graphics.draw.Constants.PRESENCE_TRANSITION_DURATION;
+import static org.cytoscape.examine.internal.graphics.draw.Constants.TRANSITION_REST_TOLERANCE;
 
 // Draw and animation manager.
 public class DrawManager {
@@ -26,17 +31,62 @@ public class DrawManager {
 
     private double mD = 0.5f * MOVE_TRANSITION_DURATION;
     
-    // Mapping of snippets to managed values.
+    // Registered snippet values by dense slot, with free slots,
+    // and the upper bound of used slots.
+    private SnippetValues[] slots;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+    
+    // Registered snippet values by snippet equality, to carry managed
+    // values over to new but equal snippet instances.
     private HashMap<Snippet, SnippetValues> snippets;
     
+    // Draw generation, snippets drawn in this generation are marked drawn.
+    private int frame;
+    
     // Default graphics buffer.
     protected Graphics2D defaultGraphics;
     
-    // Picking graphics buffer.
-    private PickingGraphics2D pickingGraphics;
+    // Timers and counters.
+    private final Profiler profiler;
+    
+    // Snippets drawn since last post screen.
+    private int drawnCount;
+    
+    // Laid out text and font metrics.
+    private final TextCache textCache;
+    
+    // Geometry of the last screen draw, for hover detection.
+    private final HitIndex hitIndex;
+    
+    // Canvas dimensions, bound hover detection.
+    private int canvasWidth, canvasHeight;
+    
+    // Base to panel coordinate transform of the last screen draw.
+    private AffineTransform panelTransform;
+    
+    // Whether drawn geometry is picked, and the drawn snippet it picks.
+    private boolean picking;
+    private Snippet drawnSnippet;
     
     // Graphics to delegate to for drawn snippet.
     protected Graphics2D pg;
+    
+    // Default graphics transform at the start of a draw.
+    private AffineTransform baseTransform;
+    
+    // Layer raster to screen transform, while rendering a layer.
+    private AffineTransform layerToScreen;
+    
+    // Whether the snippets of the layer that is being rendered are at rest.
+    private boolean layerSettled;
+    
+    // Whether any snippet was transitioning or fading during the last draw.
+    private boolean active;
+    
+    // Called to request a redraw of the scene.
+    private Runnable redrawRequest;
 
     // Whether to transition snippets at all.
     private boolean isAnimated = true;
@@ -57,17 +107,29 @@ public class DrawManager {
     // Post screen phase flag.
     private boolean postScreen;
     
-    // Style and transform stacks.
-    private ArrayList<Style> styleStack;
-    private ArrayList<AffineTransform> transformStack;
+    // Stroke of snippets that have not been drawn yet.
+    private static final Stroke DEFAULT_STROKE = new BasicStroke();
+    
+    // Style and transform stacks, with reused entries.
+    private Paint[] paintStack;
+    private Stroke[] strokeStack;
+    private int styleDepth;
+    private AffineTransform[] transformStack;
+    private int transformDepth;
     
     /**
      * Base constructor.
      */
-    DrawManager() {
+    DrawManager(Profiler profiler, TextCache textCache) {
+        this.profiler = profiler;
+        this.slots = new SnippetValues[1024];
+        this.freeSlots = new int[1024];
         this.snippets = new HashMap<Snippet, SnippetValues>(10000);
-        this.styleStack = new ArrayList<Style>();
-        this.transformStack = new ArrayList<AffineTransform>();
+        this.paintStack = new Paint[32];
+        this.strokeStack = new Stroke[32];
+        this.transformStack = new AffineTransform[32];
+        this.hitIndex = new HitIndex();
+        this.textCache = textCache;
     }
 
     public void setAnimated(boolean isAnimated) {
@@ -79,10 +141,11 @@ public class DrawManager {
     }
 
     /**
-     * Install new picking buffer.
+     * Update canvas dimensions.
      */
-    public void updatePickingBuffer(int width, int height) {
-        pickingGraphics = new PickingGraphics2D(defaultGraphics, width, height);
+    public void updateCanvasSize(int width, int height) {
+        canvasWidth = width;
+        canvasHeight = height;
     }
     
     /**
@@ -94,14 +157,53 @@ public class DrawManager {
         dT = min(0.1f, oT == 0 ? 0.1f : (double) (nT - oT) / 1000f);
         oT = nT;
         
+        // New draw generation, all snippets are not drawn.
+        frame++;
+        
         // Update default graphics buffer.
         pg = defaultGraphics;
+        baseTransform = defaultGraphics.getTransform();
+        try {
+            panelTransform = baseTransform.createInverse();
+        } catch(NoninvertibleTransformException ex) {
+            panelTransform = new AffineTransform();
+        }
         
         // No parameter interpolation outside of snippets.
         transitioning = false;
         
         // Not in post screen phase.
         postScreen = false;
+        
+        // At rest until a transition or fade is found.
+        active = false;
+    }
+    
+    /**
+     * Whether the last draw had no transitions or fades in
+     * progress, such that redrawing would not change the scene.
+     */
+    public boolean isAtRest() {
+        return !active;
+    }
+    
+    /**
+     * Install the action that schedules a redraw.
+     */
+    public void setRedrawRequest(Runnable redrawRequest) {
+        this.redrawRequest = redrawRequest;
+    }
+    
+    /**
+     * Request a redraw of the scene, for changes that originate
+     * outside of drawing (input, layout updates). Thread safe
+     * when the installed action is.
+     */
+    public void requestRedraw() {
+        Runnable request = redrawRequest;
+        if(request != null) {
+            request.run();
+        }
     }
     
     /**
@@ -115,14 +217,11 @@ public class DrawManager {
     public void preScreen() {
         pg = defaultGraphics;
         
-        // Clear stacks.
-        styleStack.clear();
-        transformStack.clear();
-        
-        // Set snippets to not drawn.
-        for(SnippetValues v: snippets.values()) {
-            v.drawn = false;
-        }
+        // Clear stacks and hit geometry.
+        styleDepth = 0;
+        transformDepth = 0;
+        hitIndex.clear();
+        picking = false;
     }
     
     /**
@@ -132,21 +231,31 @@ public class DrawManager {
         // Entering post screen phase.
         postScreen = true;
         
+        profiler.count(Counter.SNIPPETS, drawnCount);
+        profiler.count(Counter.HIT_SHAPES, hitIndex.size());
+        drawnCount = 0;
+        
         // Fade away and/or remove redundant snippets.
-        Iterator<Entry<Snippet, SnippetValues>> rIt = snippets.entrySet().iterator();
-        while(rIt.hasNext()) {
-            Entry<Snippet, SnippetValues> r = rIt.next();
-            SnippetValues sv = r.getValue();
+        for(int slot = 0; slot < slotCount; slot++) {
+            SnippetValues sv = slots[slot];
+            if(sv == null) {
+                continue;
+            }
             
             // Fade in.
-            if(sv.drawn) {
+            if(sv.drawn()) {
+                if(sv.presence < 1) {
+                    active = true;
+                }
                 sv.presence = min(1f, sv.presence + dT / PRESENCE_TRANSITION_DURATION);
             }
             // Fade out and remove.
             else {
+                active = true;
+                
                 // Remove completely.
                 if(sv.presence < 0.1f) {
-                    rIt.remove();
+                    unregister(sv);
                 }
                 // Fade out.
                 else {
@@ -158,58 +267,31 @@ public class DrawManager {
         // Draw non-drawn snippets.
         pushTransform();
         pushStyle();
-        for(Entry<Snippet, SnippetValues> r: snippets.entrySet()) {
-            Snippet s = r.getKey();
-            SnippetValues sv = r.getValue();
+        for(int slot = 0; slot < slotCount; slot++) {
+            SnippetValues sv = slots[slot];
             
-            if(!sv.drawn) {
+            if(sv != null && !sv.drawn()) {
                 // Apply last known transformation and style.
                 pg.setTransform(sv.transform);
-                setStyle(sv.style);
+                pg.setPaint(sv.paint);
+                pg.setStroke(sv.stroke);
 
                 // Draw snippet, push to back.
-                snippet(s, animatedGraphics);
+                snippet(sv.snippet, animatedGraphics);
             }
         }
         popStyle();
         popTransform();
     }
     
-    public void prePicking() {
-        pg = pickingGraphics;
-        
-        // Clear stacks.
-        styleStack.clear();
-        transformStack.clear();
-        
-        // Set snippets to not drawn and assign picking ids.
-        int snippetId = PickingGraphics2D.firstId;
-        for(SnippetValues v: snippets.values()) {
-            v.drawn = false;
-            v.id = snippetId;
-            snippetId++;
-        }
-        
-        //beginDraw();
-        
-        // Initialize picking buffer.
-        pickingGraphics.preDraw();
-    }
-
     public Snippet updateHoveredSnippet(int mouseX, int mouseY) {
-        // Determine object under mouse.
-        int pickId = pickingGraphics.closestSnippetId(mouseX, mouseY);
-
-        // Remove redundant snippets and determine hovered snippet.
+        // Determine object under mouse, bounded by window.
+        int radius = min(CURSOR_DILATION_RADIUS,
+                         min(min(canvasWidth - mouseX, mouseX),
+                             min(canvasHeight - mouseY, mouseY)));
+        
         Snippet oldHovered = hovered;
-        hovered = null;
-        Iterator<Entry<Snippet, SnippetValues>> rIt = snippets.entrySet().iterator();
-        while(rIt.hasNext()) {
-            Entry<Snippet, SnippetValues> r = rIt.next();
-            if(r.getValue().id == pickId) {
-                hovered = r.getKey();
-            }
-        }
+        hovered = hitIndex.closest(mouseX, mouseY, radius);
 
         // Call hover transition methods on snippet.
         if(hovered != oldHovered) {
@@ -225,21 +307,195 @@ public class DrawManager {
         return hovered;
     }
 
+    /**
+     * Draw a layer, from its retained raster when possible.
+     * Layers are only retained for animated screen draws.
+     */
+    public void layer(Layer layer, long version, AnimatedGraphics animatedGraphics) {
+        if(!isAnimated || layerToScreen != null || postScreen) {
+            layer.draw(animatedGraphics);
+            return;
+        }
+        
+        // Raster in device pixels, covering the canvas.
+        double sx = abs(baseTransform.getScaleX()) > 0 ? abs(baseTransform.getScaleX()) : 1;
+        double sy = abs(baseTransform.getScaleY()) > 0 ? abs(baseTransform.getScaleY()) : 1;
+        int width = (int) Math.ceil(sx * animatedGraphics.getCanvasWidth());
+        int height = (int) Math.ceil(sy * animatedGraphics.getCanvasHeight());
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+        
+        AffineTransform transform = pg.getTransform();
+        AffineTransform toScreen = new AffineTransform(baseTransform);
+        toScreen.scale(1 / sx, 1 / sy);
+        
+        boolean reuse = layer.settled &&
+                        layer.version == version &&
+                        transform.equals(layer.transform) &&
+                        toScreen.equals(layer.toScreen) &&
+                        layer.image.getWidth() == width &&
+                        layer.image.getHeight() == height;
+        
+        // Keep snippets alive without drawing them, restore their hit geometry.
+        if(reuse) {
+            profiler.count(Counter.LAYER_REUSES, 1);
+            layer.retain(animatedGraphics);
+            hitIndex.addAll(layer.hits);
+        }
+        // Render layer to raster.
+        else {
+            profiler.count(Counter.LAYER_RENDERS, 1);
+            if(layer.image == null ||
+               layer.image.getWidth() != width ||
+               layer.image.getHeight() != height) {
+                layer.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            }
+            
+            Graphics2D lg = layer.image.createGraphics();
+            lg.setComposite(AlphaComposite.Clear);
+            lg.fillRect(0, 0, width, height);
+            lg.setComposite(AlphaComposite.SrcOver);
+            lg.setRenderingHints(pg.getRenderingHints());
+            lg.setFont(pg.getFont());
+            lg.setPaint(pg.getPaint());
+            lg.setStroke(pg.getStroke());
+            try {
+                AffineTransform layerTransform = toScreen.createInverse();
+                layerTransform.concatenate(transform);
+                lg.setTransform(layerTransform);
+            } catch(NoninvertibleTransformException ex) {
+                lg.dispose();
+                layer.draw(animatedGraphics);
+                return;
+            }
+            
+            Graphics2D screenGraphics = pg;
+            pg = lg;
+            layerToScreen = toScreen;
+            layerSettled = true;
+            int firstHit = hitIndex.size();
+            
+            layer.draw(animatedGraphics);
+            
+            layer.hits = hitIndex.from(firstHit);
+            
+            pg = screenGraphics;
+            layerToScreen = null;
+            lg.dispose();
+            
+            layer.transform = transform;
+            layer.toScreen = toScreen;
+            layer.version = version;
+            layer.settled = layerSettled;
+        }
+        
+        // Composite raster.
+        pushTransform();
+        pg.setTransform(toScreen);
+        pg.drawImage(layer.image, 0, 0, null);
+        popTransform();
+    }
+    
+    /**
+     * Mark a snippet as drawn without drawing it,
+     * for snippets that are part of a retained layer.
+     */
+    public void retain(Snippet s) {
+        SnippetValues sv = registered(s);
+        if(sv != null) {
+            sv.drawnFrame = frame;
+        }
+    }
+    
+    /**
+     * Managed values of a registered snippet, or null. Looked up by
+     * equality only when the given snippet instance is new, in which
+     * case it replaces the equal instance.
+     */
+    private SnippetValues registered(Snippet s) {
+        SnippetValues sv = s.values;
+        
+        // Snippet instance still registered here.
+        if(sv != null && sv.slot >= 0 && sv.slot < slots.length && slots[sv.slot] == sv && sv.snippet == s) {
+            return sv;
+        }
+        
+        // New instance of equal snippet, update key.
+        sv = snippets.remove(s);
+        if(sv != null) {
+            snippets.put(s, sv);
+            sv.snippet = s;
+            s.values = sv;
+        }
+        
+        return sv;
+    }
+    
+    // Register snippet in a free slot.
+    private SnippetValues register(Snippet s) {
+        int slot;
+        if(freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if(slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, 2 * slots.length);
+                freeSlots = Arrays.copyOf(freeSlots, 2 * freeSlots.length);
+            }
+            slot = slotCount++;
+        }
+        
+        SnippetValues sv = new SnippetValues(s, slot);
+        slots[slot] = sv;
+        snippets.put(s, sv);
+        s.values = sv;
+        
+        return sv;
+    }
+    
+    // Release the slot of a snippet.
+    private void unregister(SnippetValues sv) {
+        snippets.remove(sv.snippet);
+        slots[sv.slot] = null;
+        freeSlots[freeCount++] = sv.slot;
+        sv.slot = -1;
+    }
+
     public void pushTransform() {
-        transformStack.add(pg.getTransform());
+        if(transformDepth == transformStack.length) {
+            transformStack = Arrays.copyOf(transformStack, 2 * transformDepth);
+        }
+        if(transformStack[transformDepth] == null) {
+            transformStack[transformDepth] = new AffineTransform();
+        }
+        
+        // Graphics2D hands out a copy, store it in the reused entry.
+        transformStack[transformDepth].setTransform(pg.getTransform());
+        transformDepth++;
     }
 
     public void popTransform() {
-        pg.setTransform(transformStack.remove(transformStack.size() - 1));
+        transformDepth--;
+        pg.setTransform(transformStack[transformDepth]);
     }
 
     public void pushStyle() {
-        styleStack.add(getStyle());
+        if(styleDepth == paintStack.length) {
+            paintStack = Arrays.copyOf(paintStack, 2 * styleDepth);
+            strokeStack = Arrays.copyOf(strokeStack, 2 * styleDepth);
+        }
+        
+        paintStack[styleDepth] = pg.getPaint();
+        strokeStack[styleDepth] = pg.getStroke();
+        styleDepth++;
     }
 
     public void popStyle() {
-        Style style = styleStack.remove(styleStack.size() - 1);
-        setStyle(style);
+        styleDepth--;
+        pg.setPaint(paintStack[styleDepth]);
+        pg.setStroke(strokeStack[styleDepth]);
+        paintStack[styleDepth] = null;
+        strokeStack[styleDepth] = null;
     }
 
     public void setStyle(Style style) {
@@ -253,15 +509,78 @@ public class DrawManager {
 
     // Any drawn geometry will be picked.
     public void picking() {
-        if(pg instanceof PickingGraphics2D) {
-            ((PickingGraphics2D) pg).picking();
-        }
+        picking = true;
     }
 
     // No drawn geometry will be picked.
     public void noPicking() {
-        if(pg instanceof PickingGraphics2D) {
-            ((PickingGraphics2D) pg).noPicking();
+        picking = false;
+    }
+    
+    /**
+     * Draw shape outline.
+     */
+    public void draw(Shape shape) {
+        pg.draw(shape);
+        hit(shape, pg.getStroke());
+    }
+    
+    /**
+     * Fill shape.
+     */
+    public void fill(Shape shape) {
+        pg.fill(shape);
+        hit(shape, null);
+    }
+    
+    /**
+     * Draw text, hit by its bounding box. Interactive draws use cached
+     * glyphs, exports keep text as text.
+     */
+    public void text(String str, float x, float y) {
+        TextCache.Text text = textCache.text(str, pg);
+        
+        if(isAnimated) {
+            pg.drawGlyphVector(text.glyphs(), x, y);
+        } else {
+            pg.drawString(str, x, y);
+        }
+        
+        if(isHitRecorded()) {
+            hit(new Rectangle2D.Double(x, y - textAscent(), text.width, text.height), null);
+        }
+    }
+    
+    /**
+     * Width of text in the current font.
+     */
+    public double textWidth(String str) {
+        return textCache.text(str, pg).width;
+    }
+    
+    public double textAscent() {
+        return textCache.metrics(pg).getAscent();
+    }
+    
+    public double textDescent() {
+        return textCache.metrics(pg).getDescent();
+    }
+    
+    // Hit geometry is recorded for the main screen draw of interactive cases.
+    private boolean isHitRecorded() {
+        return isAnimated && !postScreen;
+    }
+    
+    // Record drawn geometry in panel coordinates.
+    private void hit(Shape shape, Stroke stroke) {
+        if(isHitRecorded()) {
+            AffineTransform transform = new AffineTransform(panelTransform);
+            if(layerToScreen != null) {
+                transform.concatenate(layerToScreen);
+            }
+            transform.concatenate(pg.getTransform());
+            
+            hitIndex.add(new Hit(picking ? drawnSnippet : null, shape, stroke, transform));
         }
     }
     
@@ -272,32 +591,28 @@ public class DrawManager {
         // Store current state (for nested snippets).
         boolean oldTransitioning = transitioning;
         SnippetValues oldSnippetValues = snippetValues;
+        Snippet oldDrawnSnippet = drawnSnippet;
         int oldTi = ti;
         
         // Set snippet values context.
-        // Only extract values in postScreen draws.
-        if(postScreen) {
-            //snippetValues = s.values;
-            snippetValues = snippets.get(s);
-            
+        SnippetValues sv = registered(s);
+        if(sv == null) {
             // Avoid drawing just added snippets that have not been drawn.
-            if(snippetValues == null) {
+            if(postScreen) {
                 return;
             }
+            
+            // Register snippet.
+            sv = register(s);
         }
-        // Register snippet if required and update key.
-        else {
-            snippetValues = snippets.remove(s);
-            if(snippetValues == null) {
-                snippetValues = new SnippetValues();
-            }
-            snippets.put(s, snippetValues);
-        }
+        snippetValues = sv;
         
         // Prevent duplicate draw.
-        if(!snippetValues.drawn) {
+        if(!snippetValues.drawn()) {
             // Is drawn.
-            snippetValues.drawn = true;
+            snippetValues.drawnFrame = frame;
+            drawnSnippet = s;
+            drawnCount++;
 
             // Parameter interpolation enabled by default.
             transitioning = isAnimated;
@@ -309,23 +624,23 @@ public class DrawManager {
             pushTransform();
             pushStyle();
 
-            // For screen draw, prevent duplicate draw for fading out snippets.
-            if(pg == defaultGraphics) {
-                // Store last know transformation matrix and style.
+            // Store last know transformation matrix (in screen space) and style.
+            if(layerToScreen == null) {
                 snippetValues.transform.setTransform(pg.getTransform());
-                snippetValues.style = getStyle();
+            } else {
+                snippetValues.transform.setTransform(layerToScreen);
+                snippetValues.transform.concatenate(pg.getTransform());
 
-                // Draw.
-                s.draw(animatedGraphics);
+                // Layer is not at rest while fading in.
+                if(snippetValues.presence < 1) {
+                    layerSettled = false;
+                }
             }
-            // For picking draw.
-            else {
-                // Draw in picking buffer.
-                pickingGraphics.snippetId = snippetValues.id;
+            snippetValues.paint = pg.getPaint();
+            snippetValues.stroke = pg.getStroke();
 
-                // Draw.
-                s.draw(animatedGraphics);
-            }
+            // Draw.
+            s.draw(animatedGraphics);
 
             // Pop transformation matrix and style.
             popStyle();
@@ -335,6 +650,7 @@ public class DrawManager {
         // Restore old state (for nested snippets).
         ti = oldTi;
         snippetValues = oldSnippetValues;
+        drawnSnippet = oldDrawnSnippet;
         transitioning = oldTransitioning;
         noPicking();
     }
@@ -342,68 +658,84 @@ public class DrawManager {
     // Additional information that is maintained for a snippet during its lifespan.
     public class SnippetValues {
         
-        // Whether snippet has been drawn (for fade-out).
-        protected boolean drawn = false;
+        // Latest registered snippet instance and its slot (-1 when released).
+        protected Snippet snippet;
+        protected int slot;
+        
+        // Draw generation in which the snippet has last been drawn (for fade-out).
+        protected int drawnFrame = frame - 1;
         
         // Last used transformation matrix.
         protected AffineTransform transform = new AffineTransform();
                 
         // Last used style.
-        protected Style style = new Style();
-        
-        // Picking number in context of a single draw.
-        protected int id;
+        protected Paint paint = Color.BLACK;
+        protected Stroke stroke = DEFAULT_STROKE;
         
         // Extent of presence in the scene, includes delay.
         protected double presence = isAnimated ? -MOVE_TRANSITION_DURATION / PRESENCE_TRANSITION_DURATION : 1;
         
-        // Intermediate state of doubles that are transitioned over.
-        private Intermediate[] intermediates = new Intermediate[20];
+        SnippetValues(Snippet snippet, int slot) {
+            this.snippet = snippet;
+            this.slot = slot;
+        }
+        
+        // Whether snippet has been drawn in the current draw generation.
+        protected boolean drawn() {
+            return drawnFrame == frame;
+        }
+        
+        // Intermediate state of doubles that are transitioned over,
+        // as parallel value and rate of change buffers.
+        private double[] values = new double[20];
+        private double[] changes = new double[20];
+        private int size;
         
         // Transition value to target, returns intermediate.
         protected double transition(int index, double target) {            
             // Add value entry.
-            if(intermediates.length <= index) {
-                intermediates = Arrays.copyOf(intermediates, intermediates.length * 2);
+            if(index >= size) {
+                if(values.length <= index) {
+                    int length = Math.max(2 * values.length, index + 1);
+                    values = Arrays.copyOf(values, length);
+                    changes = Arrays.copyOf(changes, length);
+                }
+                
+                values[index] = target;
+                changes[index] = 0;
+                size = index + 1;
             }
             
-            Intermediate im;
-            if(intermediates[index] == null) {
-                im = new Intermediate();
-                im.value = target;
-                im.change = 0;
-                intermediates[index] = im;
-            } else {
-                im = intermediates[index];
-            }
+            double value = values[index];
             
             // Update change, fast initial movement, slow down at end.
-            // Do not transition when snippets are fading.
-            if(pg == defaultGraphics) {
-                if(transitioning) {
-                    double d = target - im.value;
+            if(transitioning) {
+                double change = changes[index];
+                double d = target - value;
 
-                    // Apply acceleration.
-                    im.change += dT * (d - (2 * im.change * mD)) / (mD * mD);
+                // Apply acceleration.
+                change += dT * (d - (2 * change * mD)) / (mD * mD);
 
-                    // Apply velocity.
-                    double ad = dT * im.change;
-                    im.value += ad;
-                    /*if(ad > 0) {
-                        im.value = min(target, im.value + ad);
-                    } else if(ad < 0) {
-                        im.value = max(target, im.value + ad);
-                    }*/
-                } else {
-                    im.value = target;
+                // Apply velocity.
+                value += dT * change;
+                
+                // Scene and layer are not at rest while values move.
+                if(abs(target - value) > TRANSITION_REST_TOLERANCE ||
+                   abs(change) > TRANSITION_REST_TOLERANCE) {
+                    active = true;
+                    if(layerToScreen != null) {
+                        layerSettled = false;
+                    }
                 }
+                
+                changes[index] = change;
+            } else {
+                value = target;
             }
             
-            return im.value;
-        }
-        
-        private class Intermediate {
-            double value, change;
+            values[index] = value;
+            
+            return value;
         }
     }
     
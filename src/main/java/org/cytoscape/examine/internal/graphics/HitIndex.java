@@ -0,0 +1,157 @@
+package org.cytoscape.examine.internal.graphics;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import org.cytoscape.examine.internal.graphics.draw.Snippet;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Spatial index of the geometry of a screen draw, in panel
+ * coordinates, for hover detection. Geometry that is drawn
+ * later lies on top; geometry without snippet occludes.
+ */
+class HitIndex {
+
+    // Drawn geometry, in draw order.
+    private final ArrayList<Hit> hits;
+
+    // R-tree of hit bounds, built on first query.
+    private STRtree tree;
+
+    HitIndex() {
+        this.hits = new ArrayList<Hit>(10000);
+    }
+
+    void clear() {
+        hits.clear();
+        tree = null;
+    }
+
+    int size() {
+        return hits.size();
+    }
+
+    void add(Hit hit) {
+        hits.add(hit);
+        tree = null;
+    }
+
+    void addAll(List<Hit> addedHits) {
+        hits.addAll(addedHits);
+        tree = null;
+    }
+
+    // Hits from the given draw index onwards.
+    List<Hit> from(int index) {
+        return new ArrayList<Hit>(hits.subList(index, hits.size()));
+    }
+
+    /**
+     * Snippet under the given panel coordinate, or the closest
+     * one within the given radius. Probes every square of
+     * increasing radius at its corners and edge midpoints.
+     */
+    Snippet closest(int x, int y, int radius) {
+        if(radius <= 0) {
+            return null;
+        }
+
+        if(tree == null) {
+            tree = new STRtree();
+            for(int i = 0; i < hits.size(); i++) {
+                tree.insert(hits.get(i).bounds(), i);
+            }
+            tree.build();
+        }
+
+        // Candidates near the cursor, top first.
+        @SuppressWarnings("unchecked")
+        List<Integer> candidates = tree.query(
+                new Envelope(x - radius, x + radius + 1, y - radius, y + radius + 1));
+        Collections.sort(candidates, Collections.reverseOrder());
+
+        Point2D.Double p = new Point2D.Double();
+        for(int r = 0; r < radius; r++) {
+            for(int dx = -1; dx <= 1; dx += 1) {
+                for(int dy = -1; dy <= 1; dy += 1) {
+                    // Pixel center.
+                    p.setLocation(x + dx * r + 0.5, y + dy * r + 0.5);
+
+                    for(Integer c: candidates) {
+                        Hit hit = hits.get(c);
+                        if(hit.contains(p)) {
+                            if(hit.snippet != null) {
+                                return hit.snippet;
+                            }
+
+                            // Occluded.
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    // Drawn shape, with the snippet it picks (null when not picking).
+    static class Hit {
+        final Snippet snippet;
+        final Shape shape;
+        final Stroke stroke;            // Null for fills.
+        final AffineTransform transform;
+        private Shape outline;          // Stroked shape, on demand.
+
+        Hit(Snippet snippet, Shape shape, Stroke stroke, AffineTransform transform) {
+            this.snippet = snippet;
+            this.shape = shape;
+            this.stroke = stroke;
+            this.transform = transform;
+        }
+
+        // Panel bounds, including stroke width.
+        Envelope bounds() {
+            Rectangle2D b = shape.getBounds2D();
+            if(stroke instanceof BasicStroke) {
+                double w = ((BasicStroke) stroke).getLineWidth();
+                b = new Rectangle2D.Double(b.getX() - w, b.getY() - w,
+                                           b.getWidth() + 2 * w, b.getHeight() + 2 * w);
+            } else if(stroke != null) {
+                b = stroke.createStrokedShape(shape).getBounds2D();
+            }
+
+            Rectangle2D tb = transform.createTransformedShape(b).getBounds2D();
+            return new Envelope(tb.getMinX(), tb.getMaxX(), tb.getMinY(), tb.getMaxY());
+        }
+
+        boolean contains(Point2D p) {
+            Point2D lp;
+            try {
+                lp = transform.inverseTransform(p, null);
+            } catch(NoninvertibleTransformException ex) {
+                return false;
+            }
+
+            if(stroke == null) {
+                return shape.contains(lp);
+            } else {
+                if(outline == null) {
+                    outline = stroke.createStrokedShape(shape);
+                }
+                return outline.contains(lp);
+            }
+        }
+    }
+
+}
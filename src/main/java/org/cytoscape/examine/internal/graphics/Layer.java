@@ -0,0 +1,53 @@
+package org.cytoscape.examine.internal.graphics;
+
+import org.cytoscape.examine.internal.graphics.HitIndex.Hit;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Retained raster of snippets that rarely change, such as set contours
+ * and links. The raster is composited as is while its version, drawing
+ * transform and canvas are unchanged and its snippets were at rest
+ * when it was rendered.
+ */
+public abstract class Layer {
+
+    // Rendered raster, in device pixels.
+    BufferedImage image;
+
+    // Transform of the layer contents at render time.
+    AffineTransform transform;
+
+    // Raster to base device space transform at render time.
+    AffineTransform toScreen;
+
+    // Hit geometry of the layer snippets at render time.
+    List<Hit> hits;
+
+    // Content version at render time.
+    long version;
+
+    // Whether the raster can be reused (no transitions were in progress).
+    boolean settled;
+
+    /**
+     * Draw layer contents.
+     */
+    public abstract void draw(AnimatedGraphics g);
+
+    /**
+     * Keep the layer snippets alive while the raster is reused,
+     * via AnimatedGraphics.retain.
+     */
+    public abstract void retain(AnimatedGraphics g);
+
+    /**
+     * Drop the raster, forcing the next draw to render.
+     */
+    public void invalidate() {
+        settled = false;
+    }
+
+}
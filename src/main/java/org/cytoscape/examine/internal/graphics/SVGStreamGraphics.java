@@ -0,0 +1,533 @@
+package org.cytoscape.examine.internal.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.GradientPaint;
+import java.awt.Image;
+import java.awt.Shape;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Graphics that write SVG to a stream while drawing, without building a
+ * document object model. Every shape is written as soon as it is drawn.
+ * Styles are shared via CSS classes, and text is drawn with glyph outlines
+ * that are defined once per font and glyph (a subset of the used fonts).
+ *
+ * Only colors are supported as paint. Write errors are reported by
+ * {@link #finish()}.
+ */
+public class SVGStreamGraphics extends VectorGraphics {
+
+    // Scales of coordinate and transform precision (decimals).
+    private static final long COORDINATE_SCALE = 100;
+    private static final long TRANSFORM_SCALE = 10000;
+
+    // Document state, shared by derived graphics.
+    private final Document document;
+
+    // Written identifier of the current clip, null if not written yet.
+    private String clipId;
+
+    /**
+     * Start an SVG document of the given dimensions on the given writer,
+     * which is best buffered.
+     */
+    public SVGStreamGraphics(Writer out, double width, double height) {
+        this.document = new Document(out);
+
+        StringBuilder b = document.element;
+        b.setLength(0);
+        b.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        b.append("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\"");
+        b.append(" width=\"");
+        number(b, width, COORDINATE_SCALE);
+        b.append("\" height=\"");
+        number(b, height, COORDINATE_SCALE);
+        b.append("\" viewBox=\"0 0 ");
+        number(b, width, COORDINATE_SCALE);
+        b.append(' ');
+        number(b, height, COORDINATE_SCALE);
+        b.append("\">\n");
+        document.write(b);
+    }
+
+    // Derived graphics, with a copy of the state of the given graphics.
+    private SVGStreamGraphics(SVGStreamGraphics source) {
+        super(source);
+        this.document = source.document;
+        this.clipId = source.clipId;
+    }
+
+    /**
+     * Write the shared glyphs and styles and end the document.
+     * Does not close the writer.
+     *
+     * @throws IOException The first error that occurred while writing.
+     */
+    public void finish() throws IOException {
+        document.finish();
+    }
+
+    // --- Shapes. ---
+
+    @Override
+    public void draw(Shape s) {
+        if(stroke instanceof BasicStroke) {
+            StringBuilder b = document.element;
+            b.setLength(0);
+            open(b, s, strokeStyle((BasicStroke) stroke));
+            close(b);
+        } else {
+            fill(stroke.createStrokedShape(s));
+        }
+    }
+
+    @Override
+    public void fill(Shape s) {
+        StringBuilder b = document.element;
+        b.setLength(0);
+        open(b, s, fillStyle(s.getPathIterator(null).getWindingRule()));
+        close(b);
+    }
+
+    // Opening of a shape element with the given style class, without transform.
+    private void open(StringBuilder b, Shape s, String style) {
+        if(s instanceof Rectangle2D) {
+            Rectangle2D r = (Rectangle2D) s;
+            b.append("<rect class=\"").append(style).append("\" x=\"");
+            number(b, r.getX(), COORDINATE_SCALE);
+            b.append("\" y=\"");
+            number(b, r.getY(), COORDINATE_SCALE);
+            b.append("\" width=\"");
+            number(b, r.getWidth(), COORDINATE_SCALE);
+            b.append("\" height=\"");
+            number(b, r.getHeight(), COORDINATE_SCALE);
+        } else if(s instanceof Ellipse2D) {
+            Ellipse2D e = (Ellipse2D) s;
+            b.append("<ellipse class=\"").append(style).append("\" cx=\"");
+            number(b, e.getCenterX(), COORDINATE_SCALE);
+            b.append("\" cy=\"");
+            number(b, e.getCenterY(), COORDINATE_SCALE);
+            b.append("\" rx=\"");
+            number(b, 0.5 * e.getWidth(), COORDINATE_SCALE);
+            b.append("\" ry=\"");
+            number(b, 0.5 * e.getHeight(), COORDINATE_SCALE);
+        } else {
+            b.append("<path class=\"").append(style).append("\" d=\"");
+            pathData(b, s);
+        }
+        b.append('"');
+    }
+
+    // Transform and end of a shape element, and write it.
+    private void close(StringBuilder b) {
+        transformAttribute(b, transform);
+        b.append("/>\n");
+        clipGroup();
+        document.write(b);
+    }
+
+    // --- Text. ---
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        if(!str.isEmpty()) {
+            drawGlyphVector(font.createGlyphVector(FONT_RENDER_CONTEXT, str), x, y);
+        }
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        Font glyphFont = g.getFont();
+        StringBuilder b = document.element;
+        b.setLength(0);
+        b.append("<g class=\"").append(fillStyle(PathIterator.WIND_NON_ZERO)).append('"');
+        transformAttribute(b, transform);
+        b.append(">\n");
+
+        for(int i = 0; i < g.getNumGlyphs(); i++) {
+            Point2D position = g.getGlyphPosition(i);
+            AffineTransform glyphTransform = g.getGlyphTransform(i);
+
+            if(glyphTransform != null && !glyphTransform.isIdentity()) {
+                // Transformed glyphs are not shared.
+                b.append("<path d=\"");
+                pathData(b, g.getGlyphOutline(i, x, y));
+                b.append("\"/>\n");
+            } else {
+                String id = document.glyph(glyphFont, g.getGlyphCode(i));
+                if(id != null) {
+                    b.append("<use xlink:href=\"#").append(id).append("\" x=\"");
+                    number(b, x + position.getX(), COORDINATE_SCALE);
+                    b.append("\" y=\"");
+                    number(b, y + position.getY(), COORDINATE_SCALE);
+                    b.append("\"/>\n");
+                }
+            }
+        }
+
+        b.append("</g>\n");
+        clipGroup();
+        document.write(b);
+    }
+
+    // --- Styles. ---
+
+    // Style class of fills with the current paint.
+    private String fillStyle(int windingRule) {
+        StringBuilder b = document.style;
+        b.setLength(0);
+        b.append("fill:");
+        paint(b, "fill");
+        if(windingRule == PathIterator.WIND_EVEN_ODD) {
+            b.append(";fill-rule:evenodd");
+        }
+        b.append(";stroke:none");
+        return document.styleClass(b);
+    }
+
+    // Style class of strokes with the current paint and the given stroke.
+    private String strokeStyle(BasicStroke s) {
+        StringBuilder b = document.style;
+        b.setLength(0);
+        b.append("fill:none;stroke:");
+        paint(b, "stroke");
+        b.append(";stroke-width:");
+        number(b, s.getLineWidth(), TRANSFORM_SCALE);
+        switch(s.getEndCap()) {
+            case BasicStroke.CAP_ROUND:     b.append(";stroke-linecap:round"); break;
+            case BasicStroke.CAP_SQUARE:    b.append(";stroke-linecap:square"); break;
+            default:                        break;
+        }
+        switch(s.getLineJoin()) {
+            case BasicStroke.JOIN_ROUND:    b.append(";stroke-linejoin:round"); break;
+            case BasicStroke.JOIN_BEVEL:    b.append(";stroke-linejoin:bevel"); break;
+            default:
+                b.append(";stroke-miterlimit:");
+                number(b, s.getMiterLimit(), COORDINATE_SCALE);
+        }
+        float[] dash = s.getDashArray();
+        if(dash != null) {
+            b.append(";stroke-dasharray:");
+            for(int i = 0; i < dash.length; i++) {
+                if(i > 0) {
+                    b.append(',');
+                }
+                number(b, dash[i], COORDINATE_SCALE);
+            }
+            b.append(";stroke-dashoffset:");
+            number(b, s.getDashPhase(), COORDINATE_SCALE);
+        }
+        return document.styleClass(b);
+    }
+
+    // Current paint color and opacity, for the given property prefix.
+    private void paint(StringBuilder b, String property) {
+        Color c = paint instanceof Color ? (Color) paint :
+                  paint instanceof GradientPaint ? ((GradientPaint) paint).getColor1() :
+                  color;
+        b.append('#');
+        hex(b, c.getRed());
+        hex(b, c.getGreen());
+        hex(b, c.getBlue());
+
+        double opacity = c.getAlpha() / 255.0;
+        if(composite instanceof AlphaComposite) {
+            opacity *= ((AlphaComposite) composite).getAlpha();
+        }
+        if(opacity < 1) {
+            b.append(';').append(property).append("-opacity:");
+            number(b, opacity, 1000);
+        }
+    }
+
+    // --- Clipping. ---
+
+    // Enclose following elements in a group of the current clip.
+    private void clipGroup() {
+        if(clip != null && clipId == null) {
+            clipId = document.clipPath(clip);
+        }
+        document.clipGroup(clip == null ? null : clipId);
+    }
+
+    @Override
+    void clipChanged() {
+        clipId = null;
+    }
+
+    // --- Images. ---
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        BufferedImage image = bufferedImage(img);
+        if(image == null) {
+            return false;
+        }
+
+        AffineTransform imageTransform = new AffineTransform(transform);
+        if(xform != null) {
+            imageTransform.concatenate(xform);
+        }
+
+        StringBuilder b = document.element;
+        b.setLength(0);
+        b.append("<image width=\"").append(image.getWidth());
+        b.append("\" height=\"").append(image.getHeight()).append('"');
+        transformAttribute(b, imageTransform);
+        b.append(" xlink:href=\"data:image/png;base64,").append(png(image)).append("\"/>\n");
+        clipGroup();
+        document.write(b);
+        return true;
+    }
+
+    // Base64 encoded PNG of the given image.
+    private String png(BufferedImage image) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", bytes);
+        } catch(IOException ex) {
+            document.fail(ex);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    // --- Derived graphics. ---
+
+    @Override
+    public Graphics create() {
+        return new SVGStreamGraphics(this);
+    }
+
+    @Override
+    public void dispose() {
+        // The document is ended by finish.
+    }
+
+    // --- Formatting. ---
+
+    // Transform attribute, nothing for the identity.
+    private static void transformAttribute(StringBuilder b, AffineTransform t) {
+        if(t.isIdentity()) {
+            return;
+        }
+
+        b.append(" transform=\"");
+        if(t.getType() == AffineTransform.TYPE_TRANSLATION) {
+            b.append("translate(");
+            number(b, t.getTranslateX(), COORDINATE_SCALE);
+            b.append(',');
+            number(b, t.getTranslateY(), COORDINATE_SCALE);
+        } else {
+            b.append("matrix(");
+            number(b, t.getScaleX(), TRANSFORM_SCALE);
+            b.append(',');
+            number(b, t.getShearY(), TRANSFORM_SCALE);
+            b.append(',');
+            number(b, t.getShearX(), TRANSFORM_SCALE);
+            b.append(',');
+            number(b, t.getScaleY(), TRANSFORM_SCALE);
+            b.append(',');
+            number(b, t.getTranslateX(), COORDINATE_SCALE);
+            b.append(',');
+            number(b, t.getTranslateY(), COORDINATE_SCALE);
+        }
+        b.append(")\"");
+    }
+
+    // Path data of the given shape.
+    private static void pathData(StringBuilder b, Shape s) {
+        double[] c = new double[6];
+        for(PathIterator it = s.getPathIterator(null); !it.isDone(); it.next()) {
+            switch(it.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:   b.append('M'); points(b, c, 1); break;
+                case PathIterator.SEG_LINETO:   b.append('L'); points(b, c, 1); break;
+                case PathIterator.SEG_QUADTO:   b.append('Q'); points(b, c, 2); break;
+                case PathIterator.SEG_CUBICTO:  b.append('C'); points(b, c, 3); break;
+                default:                        b.append('Z');
+            }
+        }
+    }
+
+    private static void points(StringBuilder b, double[] coordinates, int count) {
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                b.append(' ');
+            }
+            number(b, coordinates[2 * i], COORDINATE_SCALE);
+            b.append(',');
+            number(b, coordinates[2 * i + 1], COORDINATE_SCALE);
+        }
+    }
+
+    // Number rounded to the given scale (a power of ten), without trailing zeros.
+    private static void number(StringBuilder b, double value, long scale) {
+        long rounded = Math.round(value * scale);
+        if(rounded < 0) {
+            b.append('-');
+            rounded = -rounded;
+        }
+
+        b.append(rounded / scale);
+        long fraction = rounded % scale;
+        if(fraction != 0) {
+            b.append('.');
+            for(long digit = scale / 10; fraction != 0; digit /= 10) {
+                b.append((char) ('0' + fraction / digit));
+                fraction %= digit;
+            }
+        }
+    }
+
+    private static void hex(StringBuilder b, int component) {
+        b.append(Character.forDigit(component >> 4, 16));
+        b.append(Character.forDigit(component & 0xF, 16));
+    }
+
+    // Output and definitions that are shared by derived graphics.
+    private static final class Document {
+
+        private final Writer out;
+        private IOException failure;
+
+        // Buffers of the element and style that are being written.
+        final StringBuilder element = new StringBuilder();
+        final StringBuilder style = new StringBuilder();
+
+        // Style declarations by class name, in order of use.
+        private final Map<String, String> styles = new LinkedHashMap<String, String>();
+
+        // Glyph identifiers by font and glyph code, and the glyph definitions.
+        private final Map<Font, Map<Integer, String>> glyphs = new HashMap<Font, Map<Integer, String>>();
+        private final StringBuilder glyphDefinitions = new StringBuilder();
+        private int glyphCount;
+
+        // Written clip paths, and the clip of the currently open group.
+        private int clipPaths;
+        private String openClip;
+
+        Document(Writer out) {
+            this.out = out;
+        }
+
+        void write(CharSequence content) {
+            if(failure == null) {
+                try {
+                    out.append(content);
+                } catch(IOException ex) {
+                    failure = ex;
+                }
+            }
+        }
+
+        void fail(IOException ex) {
+            if(failure == null) {
+                failure = ex;
+            }
+        }
+
+        // Class of the given style declaration, shared by equal styles.
+        String styleClass(CharSequence declaration) {
+            String key = declaration.toString();
+            String name = styles.get(key);
+            if(name == null) {
+                name = "s" + styles.size();
+                styles.put(key, name);
+            }
+            return name;
+        }
+
+        // Identifier of the outline of the given glyph, null for empty glyphs.
+        String glyph(Font font, int code) {
+            Map<Integer, String> fontGlyphs = glyphs.get(font);
+            if(fontGlyphs == null) {
+                fontGlyphs = new HashMap<Integer, String>();
+                glyphs.put(font, fontGlyphs);
+            }
+
+            if(!fontGlyphs.containsKey(code)) {
+                Shape outline = font.createGlyphVector(FONT_RENDER_CONTEXT, new int[] {code}).getGlyphOutline(0);
+                String id = null;
+                if(!outline.getBounds2D().isEmpty()) {
+                    id = "g" + glyphCount++;
+                    glyphDefinitions.append("<path id=\"").append(id).append("\" d=\"");
+                    pathData(glyphDefinitions, outline);
+                    glyphDefinitions.append("\"/>\n");
+                }
+                fontGlyphs.put(code, id);
+            }
+
+            return fontGlyphs.get(code);
+        }
+
+        // Write a clip path of the given device space shape, returns its identifier.
+        String clipPath(Shape clip) {
+            String id = "c" + clipPaths++;
+            StringBuilder b = new StringBuilder();
+            b.append("<clipPath id=\"").append(id).append("\"><path d=\"");
+            pathData(b, clip);
+            b.append("\"/></clipPath>\n");
+            clipGroup(null);
+            write(b);
+            return id;
+        }
+
+        // Switch to a group of the given clip, null for no clip.
+        void clipGroup(String clip) {
+            if(clip == null ? openClip != null : !clip.equals(openClip)) {
+                if(openClip != null) {
+                    write("</g>\n");
+                }
+                if(clip != null) {
+                    write("<g clip-path=\"url(#" + clip + ")\">\n");
+                }
+                openClip = clip;
+            }
+        }
+
+        void finish() throws IOException {
+            clipGroup(null);
+
+            StringBuilder b = new StringBuilder();
+            b.append("<defs>\n").append(glyphDefinitions).append("</defs>\n");
+            b.append("<style type=\"text/css\"><![CDATA[\n");
+            for(Map.Entry<String, String> entry : styles.entrySet()) {
+                b.append('.').append(entry.getValue()).append('{').append(entry.getKey()).append("}\n");
+            }
+            b.append("]]></style>\n");
+            b.append("</svg>\n");
+            write(b);
+
+            if(failure == null) {
+                try {
+                    out.flush();
+                } catch(IOException ex) {
+                    failure = ex;
+                }
+            }
+            if(failure != null) {
+                throw failure;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package org.cytoscape.examine.internal.graphics;
+
+import java.awt.BasicStroke;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable recording of drawing operations, in order, that can be painted
+ * to any number of graphics concurrently, for example to the tiles of a
+ * large raster. Every operation carries its device space bounds, such that
+ * painting an area skips the operations outside of it.
+ */
+public final class Scene {
+
+    private final List<Operation> operations;
+
+    private Scene(List<Operation> operations) {
+        this.operations = Collections.unmodifiableList(new ArrayList<Operation>(operations));
+    }
+
+    /**
+     * Number of recorded operations.
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Paint the operations that intersect the given area of the scene device space,
+     * in the current user space of the given graphics.
+     */
+    public void paint(Graphics2D g, Rectangle2D area) {
+        final AffineTransform base = g.getTransform();
+        final Shape baseClip = g.getClip();
+
+        for(Operation operation: operations) {
+            if(operation.bounds != null && !operation.bounds.intersects(area)) {
+                continue;
+            }
+
+            g.setTransform(base);
+            g.setClip(baseClip);
+            if(operation.clip != null) {
+                g.clip(operation.clip);
+            }
+            g.transform(operation.transform);
+            g.setPaint(operation.paint);
+            g.setStroke(operation.stroke);
+            g.setComposite(operation.composite);
+
+            switch(operation.kind) {
+                case FILL:  g.fill(operation.shape); break;
+                case DRAW:  g.draw(operation.shape); break;
+                case TEXT:
+                    g.setFont(operation.font);
+                    g.drawString(operation.text, operation.x, operation.y);
+                    break;
+                case IMAGE: g.drawImage(operation.image, operation.imageTransform, null); break;
+            }
+        }
+
+        g.setTransform(base);
+        g.setClip(baseClip);
+    }
+
+    private enum Kind {FILL, DRAW, TEXT, IMAGE}
+
+    // Drawing operation with the graphics state at the time of drawing.
+    private static final class Operation {
+        Kind kind;
+        AffineTransform transform;
+        Paint paint;
+        Stroke stroke;
+        Composite composite;
+        Shape clip;                     // Device space, null if there is none.
+        Rectangle2D bounds;             // Device space, null if unknown.
+
+        Shape shape;
+        Font font;
+        String text;
+        float x, y;
+        BufferedImage image;
+        AffineTransform imageTransform;
+    }
+
+    /**
+     * Graphics that record drawing operations into a scene.
+     */
+    public static final class Recorder extends VectorGraphics {
+
+        // Operations, shared by derived graphics.
+        private final List<Operation> operations;
+
+        public Recorder() {
+            this.operations = new ArrayList<Operation>();
+        }
+
+        private Recorder(Recorder source) {
+            super(source);
+            this.operations = source.operations;
+        }
+
+        /**
+         * Scene of the operations recorded so far.
+         */
+        public Scene scene() {
+            return new Scene(operations);
+        }
+
+        @Override
+        public void draw(Shape s) {
+            Operation operation = operation(Kind.DRAW);
+            operation.shape = s;
+
+            // Bounds of the stroke, miters included.
+            if(stroke instanceof BasicStroke) {
+                BasicStroke basicStroke = (BasicStroke) stroke;
+                double extent = basicStroke.getLineWidth() *
+                        (basicStroke.getLineJoin() == BasicStroke.JOIN_MITER ?
+                         Math.max(1, basicStroke.getMiterLimit()) : 1);
+                Rectangle2D shapeBounds = s.getBounds2D();
+                bound(operation, new Rectangle2D.Double(
+                        shapeBounds.getX() - extent, shapeBounds.getY() - extent,
+                        shapeBounds.getWidth() + 2 * extent, shapeBounds.getHeight() + 2 * extent));
+            }
+        }
+
+        @Override
+        public void fill(Shape s) {
+            Operation operation = operation(Kind.FILL);
+            operation.shape = s;
+            bound(operation, s.getBounds2D());
+        }
+
+        @Override
+        public void drawString(String str, float x, float y) {
+            Operation operation = operation(Kind.TEXT);
+            operation.font = font;
+            operation.text = str;
+            operation.x = x;
+            operation.y = y;
+
+            // Logical bounds, widened by the font size for overhangs.
+            Rectangle2D textBounds = font.getStringBounds(str, FONT_RENDER_CONTEXT);
+            double size = font.getSize2D();
+            bound(operation, new Rectangle2D.Double(
+                    x + textBounds.getX() - size, y + textBounds.getY() - size,
+                    textBounds.getWidth() + 2 * size, textBounds.getHeight() + 2 * size));
+        }
+
+        @Override
+        public void drawGlyphVector(GlyphVector g, float x, float y) {
+            // Outlines are immutable, unlike glyph vectors.
+            fill(g.getOutline(x, y));
+        }
+
+        @Override
+        public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+            BufferedImage image = bufferedImage(img);
+            if(image == null) {
+                return false;
+            }
+
+            Operation operation = operation(Kind.IMAGE);
+            operation.image = image;
+            operation.imageTransform = xform == null ? new AffineTransform() : new AffineTransform(xform);
+            bound(operation, operation.imageTransform.createTransformedShape(
+                    new Rectangle2D.Double(0, 0, image.getWidth(), image.getHeight())).getBounds2D());
+            return true;
+        }
+
+        // Record operation with the current state.
+        private Operation operation(Kind kind) {
+            Operation operation = new Operation();
+            operation.kind = kind;
+            operation.transform = new AffineTransform(transform);
+            operation.paint = paint;
+            operation.stroke = stroke;
+            operation.composite = composite;
+            operation.clip = clip;
+            operations.add(operation);
+            return operation;
+        }
+
+        // Device space bounds of the given user space bounds, within the clip.
+        private void bound(Operation operation, Rectangle2D userBounds) {
+            Rectangle2D bounds = transform.createTransformedShape(userBounds).getBounds2D();
+            if(clip != null) {
+                Rectangle2D.intersect(bounds, clip.getBounds2D(), bounds);
+            }
+            operation.bounds = bounds;
+        }
+
+        @Override
+        public Graphics create() {
+            return new Recorder(this);
+        }
+
+        @Override
+        public void dispose() {
+            // The scene is taken by scene.
+        }
+
+    }
+
+}
@@ -4,8 +4,6 @@ import java.awt.*;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Path2D;
 
-import static org.cytoscape.examine.internal.graphics.PVector.sub;
-
 public final class Shapes {
 
     /**
@@ -16,36 +14,43 @@ public final class Shapes {
     }
 
     public static Shape getArc(PVector p1, PVector p2, PVector p3) {
+        return getArc(p1.x, p1.y, p2.x, p2.y, p3.x, p3.y);
+    }
+
+    /**
+     * Circle arc through three points, or a line between the outer
+     * points when there is no such circle. Without intermediate vectors.
+     */
+    public static Shape getArc(double x1, double y1, double x2, double y2, double x3, double y3) {
         Shape path;
 
-        PVector v21 = PVector.sub(p2, p1);
-        double d21 = v21.dot(v21);
-        PVector v31 = PVector.sub(p3, p1);
-        double d31 = v31.dot(v31);
-        double a4 = 2 * v21.crossZ(v31);
-        //double a123 = Math.abs(PVector.angle(p1, p2, p3));
+        double v21x = x2 - x1, v21y = y2 - y1;
+        double d21 = v21x * v21x + v21y * v21y;
+        double v31x = x3 - x1, v31y = y3 - y1;
+        double d31 = v31x * v31x + v31y * v31y;
+        double a4 = 2 * (v21x * v31y - v21y * v31x);
 
-        double d13 = PVector.distance(p1, p3);
-        boolean wellFormed = PVector.distance(p1, p2) < d13 &&
-                PVector.distance(p2, p3) < d13;
+        double d13 = Math.sqrt(d31);
+        boolean wellFormed = Math.sqrt(d21) < d13 &&
+                Math.hypot(x3 - x2, y3 - y2) < d13;
 
-        if(wellFormed /*a123 > 0.001 * Math.PI*/ && Math.abs(a4) > 0.001) {
-            PVector center = new PVector(p1.x + (v31.y*d21-v21.y*d31)/a4,
-                    p1.y + (v21.x*d31-v31.x*d21)/a4);
+        if(wellFormed && Math.abs(a4) > 0.001) {
+            double centerX = x1 + (v31y*d21-v21y*d31)/a4;
+            double centerY = y1 + (v21x*d31-v31x*d21)/a4;
             double radius =
                     Math.sqrt(d21*d31*(
-                            Math.pow(p3.x-p2.x,2) +
-                                    Math.pow(p3.y-p2.y,2))) /
+                            Math.pow(x3-x2,2) +
+                                    Math.pow(y3-y2,2))) /
                             Math.abs(a4);
 
             Arc2D arc = new Arc2D.Double(Arc2D.OPEN);
-            arc.setFrame(center.x - radius, center.y - radius,
+            arc.setFrame(centerX - radius, centerY - radius,
                     2 * radius, 2 * radius);
 
-            boolean cross = sub(p2, p1).crossZ(sub(p3, p2)) < 0;
-            if(cross) arc.setAngles(p1.x, p1.y, p3.x, p3.y);
+            boolean cross = v21x * (y3 - y2) - v21y * (x3 - x2) < 0;
+            if(cross) arc.setAngles(x1, y1, x3, y3);
             else {
-                arc.setAngles(p3.x, p3.y, p1.x, p1.y);
+                arc.setAngles(x3, y3, x1, y1);
                 double extent = arc.getAngleExtent();
                 arc.setAngleStart(arc.getAngleStart() + extent);
                 arc.setAngleExtent(-extent);
@@ -56,8 +61,8 @@ public final class Shapes {
         // There is no circle, so take a straight line between p0 and p1.
         else {
             Path2D.Double line = new Path2D.Double();
-            line.moveTo(p1.x, p1.y);
-            line.lineTo(p3.x, p3.y);
+            line.moveTo(x1, y1);
+            line.lineTo(x3, y3);
 
             path = line;
         }
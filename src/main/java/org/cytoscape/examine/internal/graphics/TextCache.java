@@ -0,0 +1,143 @@
+package org.cytoscape.examine.internal.graphics;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.cytoscape.examine.internal.graphics.draw.Constants.TEXT_CACHE_SIZE;
+
+/**
+ * Bounded least recently used cache of laid out text, by string,
+ * font and font render context (which includes the drawing scale).
+ * Thread safe, as text is both drawn on the event dispatch thread and
+ * measured on the layout updater thread (label dimensions of layouts and
+ * contours), and even lookups reorder the access ordered map.
+ */
+public class TextCache {
+    
+    // Laid out texts, in access order.
+    private final LinkedHashMap<Key, Text> texts;
+    
+    // Reused lookup key, guarded by the cache lock like the map.
+    private final Key probe;
+    
+    // Font metrics for the last font and render context.
+    private Font metricsFont;
+    private FontRenderContext metricsContext;
+    private FontMetrics metrics;
+    
+    public TextCache() {
+        this.texts = new LinkedHashMap<Key, Text>(2 * TEXT_CACHE_SIZE, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Text> eldest) {
+                return size() > TEXT_CACHE_SIZE;
+            }
+            
+        };
+        this.probe = new Key();
+    }
+    
+    /**
+     * Text laid out in the font and render context of the given graphics.
+     */
+    synchronized Text text(String str, Graphics2D g) {
+        Font font = g.getFont();
+        FontRenderContext frc = g.getFontRenderContext();
+        
+        probe.set(str, font, frc);
+        Text text = texts.get(probe);
+        
+        if(text == null) {
+            Key key = new Key();
+            key.set(str, font, frc);
+            
+            // Same bounds as FontMetrics.getStringBounds.
+            Rectangle2D bounds = font.getStringBounds(str, frc);
+            text = new Text(str, font, frc, bounds.getWidth(), bounds.getHeight());
+            texts.put(key, text);
+        }
+        
+        return text;
+    }
+    
+    /**
+     * Font metrics for the font and render context of the given graphics.
+     */
+    synchronized FontMetrics metrics(Graphics2D g) {
+        Font font = g.getFont();
+        FontRenderContext frc = g.getFontRenderContext();
+        
+        if(metrics == null || !font.equals(metricsFont) || !frc.equals(metricsContext)) {
+            metricsFont = font;
+            metricsContext = frc;
+            metrics = g.getFontMetrics(font);
+        }
+        
+        return metrics;
+    }
+    
+    // Laid out text with its measures.
+    static class Text {
+        final double width, height;
+        private final String str;
+        private final Font font;
+        private final FontRenderContext frc;
+        private GlyphVector glyphs;     // On demand.
+        
+        private Text(String str, Font font, FontRenderContext frc, double width, double height) {
+            this.str = str;
+            this.font = font;
+            this.frc = frc;
+            this.width = width;
+            this.height = height;
+        }
+        
+        synchronized GlyphVector glyphs() {
+            if(glyphs == null) {
+                glyphs = font.createGlyphVector(frc, str);
+            }
+            
+            return glyphs;
+        }
+    }
+    
+    // Text identity.
+    private static class Key {
+        private String str;
+        private Font font;
+        private FontRenderContext frc;
+        private int hash;
+        
+        void set(String str, Font font, FontRenderContext frc) {
+            this.str = str;
+            this.font = font;
+            this.frc = frc;
+            this.hash = 31 * (31 * str.hashCode() + font.hashCode()) + frc.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+            
+            Key other = (Key) obj;
+            return hash == other.hash &&
+                   str.equals(other.str) &&
+                   font.equals(other.font) &&
+                   frc.equals(other.frc);
+        }
+    }
+    
+}
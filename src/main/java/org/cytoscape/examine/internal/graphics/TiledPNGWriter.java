@@ -0,0 +1,208 @@
+package org.cytoscape.examine.internal.graphics;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static org.cytoscape.examine.internal.graphics.draw.Constants.EXPORT_TILE_SIZE;
+
+/**
+ * Writes a scene as PNG image of arbitrary size. The image is rendered in
+ * square tiles, in parallel, one band of tiles ahead of the band that is
+ * being compressed, and is streamed to file by scanline. Memory use is
+ * bounded by two bands of tiles, rather than by the image size.
+ */
+public final class TiledPNGWriter {
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    // Maximum size of a data chunk.
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Prevent instantiation of utility class.
+     */
+    private TiledPNGWriter() {
+
+    }
+
+    /**
+     * Write the given scene, scaled by the given factor, as an opaque PNG image of
+     * the given dimensions on the given background, rendered on the given number of threads.
+     */
+    public static void write(final Scene scene, final double scale, final int width, final int height,
+                             final Color background, File target, int threads) throws IOException {
+        final int tilesX = (width + EXPORT_TILE_SIZE - 1) / EXPORT_TILE_SIZE;
+        final int bands = (height + EXPORT_TILE_SIZE - 1) / EXPORT_TILE_SIZE;
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target.toPath()), CHUNK_SIZE));
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            out.write(SIGNATURE);
+            header(out, width, height);
+
+            // Scanline of filter type and RGB samples, and compressed data buffer.
+            final byte[] line = new byte[1 + 3 * width];
+            final byte[] compressed = new byte[CHUNK_SIZE];
+
+            List<Future<BufferedImage>> band = submitBand(executor, scene, scale, width, height, background, 0);
+            for(int b = 0; b < bands; b++) {
+                // Render next band while this one is compressed.
+                List<Future<BufferedImage>> next = b + 1 < bands ?
+                        submitBand(executor, scene, scale, width, height, background, b + 1) :
+                        null;
+
+                BufferedImage[] tiles = new BufferedImage[tilesX];
+                for(int t = 0; t < tilesX; t++) {
+                    tiles[t] = result(band.get(t));
+                }
+
+                int bandHeight = tiles[0].getHeight();
+                for(int y = 0; y < bandHeight; y++) {
+                    int i = 1;
+                    for(BufferedImage tile: tiles) {
+                        int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+                        int tileWidth = tile.getWidth();
+                        for(int x = y * tileWidth, end = x + tileWidth; x < end; x++) {
+                            int pixel = pixels[x];
+                            line[i++] = (byte) (pixel >> 16);
+                            line[i++] = (byte) (pixel >> 8);
+                            line[i++] = (byte) pixel;
+                        }
+                    }
+
+                    deflater.setInput(line);
+                    while(!deflater.needsInput()) {
+                        data(out, deflater, compressed);
+                    }
+                }
+
+                band = next;
+            }
+
+            deflater.finish();
+            while(!deflater.finished()) {
+                data(out, deflater, compressed);
+            }
+            chunk(out, "IEND", compressed, 0);
+        } finally {
+            executor.shutdownNow();
+            deflater.end();
+            out.close();
+        }
+    }
+
+    // Submit the rendering of the tiles of the given band.
+    private static List<Future<BufferedImage>> submitBand(ExecutorService executor, final Scene scene,
+                                                          final double scale, int width, int height,
+                                                          final Color background, int band) {
+        List<Future<BufferedImage>> tiles = new ArrayList<Future<BufferedImage>>();
+        final int y = band * EXPORT_TILE_SIZE;
+        final int tileHeight = Math.min(EXPORT_TILE_SIZE, height - y);
+        for(int x = 0; x < width; x += EXPORT_TILE_SIZE) {
+            final int tileX = x;
+            final int tileWidth = Math.min(EXPORT_TILE_SIZE, width - x);
+            tiles.add(executor.submit(new Callable<BufferedImage>() {
+
+                @Override
+                public BufferedImage call() {
+                    return tile(scene, scale, background, tileX, y, tileWidth, tileHeight);
+                }
+
+            }));
+        }
+        return tiles;
+    }
+
+    // Render the tile at the given pixel position, with independent graphics.
+    private static BufferedImage tile(Scene scene, double scale, Color background,
+                                      int x, int y, int width, int height) {
+        BufferedImage tile = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setColor(background);
+        g.fillRect(0, 0, width, height);
+
+        g.translate(-x, -y);
+        g.scale(scale, scale);
+        scene.paint(g, new Rectangle2D.Double(x / scale, y / scale, width / scale, height / scale));
+        g.dispose();
+
+        return tile;
+    }
+
+    private static BufferedImage result(Future<BufferedImage> tile) throws IOException {
+        try {
+            return tile.get();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch(ExecutionException ex) {
+            throw new IOException("Tile rendering failed", ex.getCause());
+        }
+    }
+
+    // Image header, of 8 bit RGB samples without interlacing.
+    private static void header(DataOutputStream out, int width, int height) throws IOException {
+        byte[] header = new byte[13];
+        int32(header, 0, width);
+        int32(header, 4, height);
+        header[8] = 8;      // Bit depth.
+        header[9] = 2;      // Color type: RGB.
+        header[10] = 0;     // Deflate compression.
+        header[11] = 0;     // Adaptive filtering, each line is unfiltered.
+        header[12] = 0;     // No interlace.
+        chunk(out, "IHDR", header, header.length);
+    }
+
+    // Write compressed data, if any, as data chunk.
+    private static void data(DataOutputStream out, Deflater deflater, byte[] compressed) throws IOException {
+        int length = deflater.deflate(compressed);
+        if(length > 0) {
+            chunk(out, "IDAT", compressed, length);
+        }
+    }
+
+    private static void chunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void int32(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+}
@@ -0,0 +1,528 @@
+package org.cytoscape.examine.internal.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * Graphics without device, of which the state is tracked here and of which
+ * every drawing operation comes down to drawing or filling a shape, drawing
+ * a string or glyph vector, or drawing an image with a transform.
+ *
+ * Text is laid out with antialiasing and fractional metrics, independent
+ * of any device. Clips are kept in device space. XOR mode and copyArea
+ * are ignored.
+ */
+abstract class VectorGraphics extends Graphics2D {
+
+    // Text layout, independent of any device.
+    static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
+
+    // Source of font metrics and device configuration, without display,
+    // with the font render context of the drawn text.
+    private static final Graphics2D SCRATCH = scratch();
+
+    // Graphics state.
+    AffineTransform transform;
+    Paint paint;
+    Color color;
+    Stroke stroke;
+    Font font;
+    Composite composite;
+    Color background;
+    final RenderingHints hints;
+
+    // Clip in device space, null if there is none.
+    Shape clip;
+
+    VectorGraphics() {
+        this.transform = new AffineTransform();
+        this.paint = Color.BLACK;
+        this.color = Color.BLACK;
+        this.stroke = new BasicStroke();
+        this.font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+        this.composite = AlphaComposite.SrcOver;
+        this.background = Color.WHITE;
+        this.hints = new RenderingHints(null);
+    }
+
+    // Derived graphics, with a copy of the state of the given graphics.
+    VectorGraphics(VectorGraphics source) {
+        this.transform = new AffineTransform(source.transform);
+        this.paint = source.paint;
+        this.color = source.color;
+        this.stroke = source.stroke;
+        this.font = source.font;
+        this.composite = source.composite;
+        this.background = source.background;
+        this.hints = (RenderingHints) source.hints.clone();
+        this.clip = source.clip;
+    }
+
+    private static Graphics2D scratch() {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        return g;
+    }
+
+    // Signals a change of clip.
+    void clipChanged() {
+    }
+
+    // --- Text. ---
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        drawString(str, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        StringBuilder text = new StringBuilder();
+        for(char c = iterator.first(); c != AttributedCharacterIterator.DONE; c = iterator.next()) {
+            text.append(c);
+        }
+        drawString(text.toString(), x, y);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return FONT_RENDER_CONTEXT;
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if(font != null) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return SCRATCH.getFontMetrics(f);
+    }
+
+    // --- Clipping. ---
+
+    @Override
+    public void clip(Shape s) {
+        if(s == null) {
+            setClip(null);
+        } else if(clip == null) {
+            setClip(s);
+        } else {
+            Area area = new Area(clip);
+            area.intersect(new Area(transform.createTransformedShape(s)));
+            clip = area;
+            clipChanged();
+        }
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(Shape s) {
+        clip = s == null ? null : transform.createTransformedShape(s);
+        clipChanged();
+    }
+
+    @Override
+    public Shape getClip() {
+        if(clip == null) {
+            return null;
+        }
+
+        try {
+            return transform.createInverse().createTransformedShape(clip);
+        } catch(NoninvertibleTransformException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape userClip = getClip();
+        return userClip == null ? null : userClip.getBounds();
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        Shape shape = onStroke ? stroke.createStrokedShape(s) : s;
+        return transform.createTransformedShape(shape).intersects(rect);
+    }
+
+    // --- Images. ---
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        drawImage(op == null ? img : op.filter(img, null), x, y, null);
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if(img instanceof BufferedImage) {
+            drawImage((BufferedImage) img, xform, null);
+        } else {
+            BufferedImage image = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            image.setData(img.getData());
+            drawImage(image, xform, null);
+        }
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        drawRenderedImage(img.createDefaultRendering(), xform);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        return drawImage(img, AffineTransform.getTranslateInstance(x, y), observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        int imageWidth = img.getWidth(observer);
+        int imageHeight = img.getHeight(observer);
+        if(imageWidth <= 0 || imageHeight <= 0) {
+            return false;
+        }
+
+        AffineTransform xform = AffineTransform.getTranslateInstance(x, y);
+        xform.scale((double) width / imageWidth, (double) height / imageHeight);
+        return drawImage(img, xform, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        return drawImage(img, x, y, img.getWidth(observer), img.getHeight(observer), bgcolor, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor,
+                             ImageObserver observer) {
+        fillBackground(bgcolor, x, y, width, height);
+        return drawImage(img, x, y, width, height, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+                             int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        BufferedImage image = bufferedImage(img);
+        if(image == null || sx1 == sx2 || sy1 == sy2) {
+            return false;
+        }
+
+        // Source region, with its corners mapped to the destination corners.
+        int minX = Math.min(sx1, sx2);
+        int minY = Math.min(sy1, sy2);
+        BufferedImage region = image.getSubimage(minX, minY, Math.abs(sx2 - sx1), Math.abs(sy2 - sy1));
+        double kx = (double) (dx2 - dx1) / (sx2 - sx1);
+        double ky = (double) (dy2 - dy1) / (sy2 - sy1);
+        AffineTransform xform = AffineTransform.getTranslateInstance(
+                dx1 + (minX - sx1) * kx, dy1 + (minY - sy1) * ky);
+        xform.scale(kx, ky);
+        return drawImage(region, xform, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+                             int sx1, int sy1, int sx2, int sy2, Color bgcolor, ImageObserver observer) {
+        fillBackground(bgcolor, Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+        return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+    }
+
+    private void fillBackground(Color bgcolor, int x, int y, int width, int height) {
+        if(bgcolor != null) {
+            Paint oldPaint = paint;
+            setPaint(bgcolor);
+            fillRect(x, y, width, height);
+            setPaint(oldPaint);
+        }
+    }
+
+    // Image as buffered image, null if it is not loaded.
+    static BufferedImage bufferedImage(Image img) {
+        if(img instanceof BufferedImage) {
+            return (BufferedImage) img;
+        }
+
+        int width = img.getWidth(null);
+        int height = img.getHeight(null);
+        if(width <= 0 || height <= 0) {
+            return null;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    // --- Primitives. ---
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Double(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        fillBackground(background, x, y, width, height);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Double(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Double(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Double(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Double(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        draw(new Arc2D.Double(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        fill(new Arc2D.Double(x, y, width, height, startAngle, arcAngle, Arc2D.PIE));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if(nPoints > 0) {
+            Path2D path = new Path2D.Double();
+            path.moveTo(xPoints[0], yPoints[0]);
+            for(int i = 1; i < nPoints; i++) {
+                path.lineTo(xPoints[i], yPoints[i]);
+            }
+            draw(path);
+        }
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        draw(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        fill(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        // Drawn content cannot be copied.
+    }
+
+    // --- Transform. ---
+
+    @Override
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        transform.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        transform.concatenate(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        transform = new AffineTransform(tx);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    // --- State. ---
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        if(paint != null) {
+            this.paint = paint;
+            if(paint instanceof Color) {
+                this.color = (Color) paint;
+            }
+        }
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setColor(Color c) {
+        setPaint(c);
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        composite = comp;
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        stroke = s;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        background = color;
+    }
+
+    @Override
+    public void setPaintMode() {
+        composite = AlphaComposite.SrcOver;
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+        // Not supported without device.
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return hints.get(hintKey);
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        hints.put(hintKey, hintValue);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        this.hints.clear();
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        this.hints.putAll(hints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return SCRATCH.getDeviceConfiguration();
+    }
+
+}
@@ -3,11 +3,16 @@ package org.cytoscape.examine.internal.graphics.draw;
 import org.cytoscape.examine.internal.graphics.Colors;
 
 import java.awt.*;
+import java.io.InputStream;
 
 public class Constants {
 
     public static final double PRESENCE_TRANSITION_DURATION = 0.5;
     public static final double MOVE_TRANSITION_DURATION = 0.6;
+    public static final double TRANSITION_REST_TOLERANCE = 0.001;
+    public static final int FRAME_INTERVAL = 25;
+    public static final int TEXT_CACHE_SIZE = 4096;
+    public static final int EXPORT_TILE_SIZE = 512;
 
     public static final int CURSOR_DILATION_RADIUS = 15;
     public static final Color BACKGROUND_COLOR = Colors.grey(1f);
@@ -25,4 +30,29 @@ public class Constants {
 
     public static final double SPACING = 8.0;
 
+    /**
+     * Load base, label and note fonts once; load open sans and use Arial
+     * as fall-back. Does not require a display.
+     */
+    public static synchronized void loadFonts() {
+        if(FONT != null) {
+            return;
+        }
+
+        try {
+            InputStream input = Constants.class.getResourceAsStream("/font/OpenSans-Regular.ttf");
+            Font inputFont = Font.createFont(Font.TRUETYPE_FONT, input);
+
+            FONT = inputFont.deriveFont(24f);
+            LABEL_FONT = inputFont.deriveFont(14f);
+            NOTE_FONT = inputFont.deriveFont(8f);
+        } catch(Exception ex) {
+            System.out.println("Font load exception: " + ex.getLocalizedMessage());
+
+            FONT = new Font("Arial", Font.PLAIN, 18);
+            LABEL_FONT = new Font("Arial", Font.PLAIN, 14);
+            NOTE_FONT = new Font("Arial", Font.PLAIN, 8);
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.cytoscape.examine.internal.layout;
 
+import org.cytoscape.examine.internal.data.CompactGraph;
 import org.cytoscape.examine.internal.data.HNode;
 import org.cytoscape.examine.internal.data.HSet;
 import org.cytoscape.examine.internal.data.Network;
@@ -11,6 +12,8 @@ import org.cytoscape.examine.internal.layout.dwyer.vpsc.Constraint;
 import org.cytoscape.examine.internal.layout.dwyer.vpsc.Solver;
 import org.cytoscape.examine.internal.layout.dwyer.vpsc.Variable;
 import org.cytoscape.examine.internal.model.Selection;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.profiling.Profiler.Stage;
 import org.jgrapht.Graph;
 import org.jgrapht.WeightedGraph;
 import org.jgrapht.alg.FloydWarshallShortestPaths;
@@ -65,9 +68,16 @@ public class Layout {
     private double[][] G;
     private Descent descent;
     
+    // VPSC projection totals.
+    private long projections;
+    private long constraints;
+    
     // Derived metrics.
     public PVector dimensions;
     
+    // Statistics as of the last position update.
+    private volatile Statistics statistics;
+    
     public Layout(AnimatedGraphics g, Network network, Selection selection, Layout oldLayout) {
         this.network = network;
         this.selection = selection;
@@ -98,11 +108,45 @@ public class Layout {
         updatePositions(g, oldLayout);
     }
     
+    // Frozen copy of the topology and current positions of the given layout.
+    private Layout(Layout source) {
+        this.network = source.network;
+        this.selection = source.selection;
+        this.sets = new ArrayList<HSet>(source.sets);
+        this.nodes = source.nodes;
+        this.nodeMemberships = source.nodeMemberships;
+        this.richGraph = source.richGraph;
+        this.index = source.index;
+        this.richIndex = source.richIndex;
+        this.P = source.P == null ? null : new double[][] {source.P[0].clone(), source.P[1].clone()};
+        this.dimensions = PVector.v(source.dimensions.x, source.dimensions.y);
+        this.statistics = source.statistics;
+    }
+    
+    /**
+     * Copy of the current positions that is not affected by further updates,
+     * for drawing what a live layout shows. The copy cannot be updated itself.
+     * Callers synchronize with the updates of this layout.
+     */
+    public Layout snapshot() {
+        return new Layout(this);
+    }
+    
     public boolean updatePositions(AnimatedGraphics g) {
         return updatePositions(g,null);
     }
     
     public final boolean updatePositions(AnimatedGraphics g, Layout oldLayout) {
+        Profiler profiler = g.getProfiler();
+        long start = profiler.start();
+        
+        boolean converged = computePositions(g, oldLayout);
+        
+        profiler.stop(Stage.LAYOUT, start);
+        return converged;
+    }
+    
+    private boolean computePositions(AnimatedGraphics g, Layout oldLayout) {
         boolean converged;
         int vN = nodes.length;
             
@@ -150,12 +194,21 @@ public class Layout {
             }
             
             // Gradient descent.
+            // Adjacency is tested on compact graphs, by ids resolved once per rich node.
+            CompactGraph<RichNode, RichEdge> extCompact = CompactGraph.of(extRichGraph);
+            CompactGraph<HNode, DefaultEdge> coreCompact = network.compact();
+            int[] extIds = new int[vN];
+            int[] coreIds = new int[vN];
+            for(int i = 0; i < vN; i++) {
+                extIds[i] = extCompact.id(richNodes[i]);
+                coreIds[i] = richNodes[i].element == null ? -1 : coreCompact.id(richNodes[i].element);
+            }
             G = new double[vN][vN];
             for(int i = 0; i < vN; i++)
                 for(int j = i; j < vN; j++)
                     G[i][j] = G[j][i] =
-                            extRichGraph.containsEdge(richNodes[i], richNodes[j]) ||
-                            network.graph.containsEdge(richNodes[i].element, richNodes[j].element) ? 1 : 2;
+                            extCompact.adjacent(extIds[i], extIds[j]) ||
+                            coreCompact.adjacent(coreIds[i], coreIds[j]) ? 1 : 2;
             descent = new Descent(P, D, null);
             
             // Apply initialIterations without user constraints or non-overlap constraints.
@@ -194,9 +247,25 @@ public class Layout {
             P[1][i] -= minY;
         }
         
+        statistics = new Statistics(
+                nodes.length,
+                richNodes.length,
+                8L * ((long) mD.length * mD.length + 2L * vN + 2L * vN * vN),
+                descent.iterations,
+                descent.stress,
+                projections,
+                constraints);
+        
         return converged;
     }
     
+    /**
+     * Statistics as of the last position update, null before the first one.
+     */
+    public Statistics statistics() {
+        return statistics;
+    }
+    
     // Position of the given node, (0,0) iff null.
     public PVector position(HNode node) {
         PVector result;
@@ -251,6 +320,7 @@ public class Layout {
                 D[i][j] = D[j][i] = paths.shortestDistance(nodes[i], nodes[j]);
         
         // Spanning graph per set.
+        CompactGraph<HNode, DefaultEdge> coreCompact = network.compact();
         spanGraphs = new ArrayList<Graph<HNode, DefaultEdge>>();
         for(HSet set: sets) {
             SimpleWeightedGraph<HNode, DefaultEdge> weightedSubGraph =
@@ -266,7 +336,7 @@ public class Layout {
                     DefaultEdge nE = weightedSubGraph.addEdge(s, t);
                     
                     // Guarantee MST along already present edges.
-                    boolean isCore = network.graph.containsEdge(s, t);
+                    boolean isCore = coreCompact.containsEdge(s, t);
                     weightedSubGraph.setEdgeWeight(nE, isCore ? 0 : D[index.get(s)][index.get(t)]);
                     if(isCore) coreEdges.add(nE);
                 }
@@ -402,10 +472,10 @@ public class Layout {
         List<HSet> sets1 = nodeMemberships.get(n1);
         List<HSet> sets2 = nodeMemberships.get(n2);
         for(HSet s: sets1)
-            if(!s.set.contains(n2))
+            if(!s.contains(n2))
                 discr++;
         for(HSet s: sets2)
-            if(!s.set.contains(n1))
+            if(!s.contains(n1))
                 discr++;
         
         return discr;
@@ -513,6 +583,9 @@ public class Layout {
                            Constraint[] cs,
                            double[] starting,
                            double[] desired) {
+            projections++;
+            constraints += cs.length;
+            
             Solver solver = new Solver(vs, cs);
             solver.setStartingPositions(starting);
             solver.setDesiredPositions(desired);
@@ -525,6 +598,30 @@ public class Layout {
         }
     }
     
+    // Layout size and descent progress, immutable.
+    public static class Statistics {
+        public final int nodes;             // Plain nodes.
+        public final int richNodes;         // Plain and dummy nodes.
+        public final int dummyNodes;        // Edge subdivision nodes.
+        public final long matrixBytes;      // Distance, weight and position matrices.
+        public final long iterations;       // Descent iterations run.
+        public final double stress;         // Stress after last iteration.
+        public final long projections;      // VPSC solves.
+        public final long constraints;      // VPSC constraints over all solves.
+
+        public Statistics(int nodes, int richNodes, long matrixBytes, long iterations,
+                          double stress, long projections, long constraints) {
+            this.nodes = nodes;
+            this.richNodes = richNodes;
+            this.dummyNodes = richNodes - nodes;
+            this.matrixBytes = matrixBytes;
+            this.iterations = iterations;
+            this.stress = stress;
+            this.projections = projections;
+            this.constraints = constraints;
+        }
+    }
+    
     public static class RichNode {
         public HNode element;
         public List<HSet> memberships;
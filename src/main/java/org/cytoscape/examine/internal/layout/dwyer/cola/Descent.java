@@ -17,6 +17,8 @@ public class Descent {
     public int k;           // Dimensionality.
     public int n;           // Number of data-points / nodes / size of vectors/matrices.
     public Locks locks;     // Position locks.
+    public long iterations; // Total number of iterations run.
+    public double stress = Double.POSITIVE_INFINITY;    // Stress after last iteration.
 
     private double minD;
 
@@ -284,7 +286,9 @@ public class Descent {
             double s = rungeKutta();
             converged = Math.abs(stress / s - 1) < threshold;
             stress = s;
+            this.iterations++;
         }
+        this.stress = stress;
         
         return converged;
     }
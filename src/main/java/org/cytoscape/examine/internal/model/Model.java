@@ -53,21 +53,7 @@ public final class Model {
             CyGroupManager groupManager,
             boolean showScore,
             Constants.Selection selectionMode) {
-
-        this.dataSet = dataSet;
-        this.applicationManager = applicationManager;
-        this.visualMappingManager = visualMappingManager;
-
-        this.selection = new Selection(this);
-        this.openedCategories = new VolatileSet<HCategory>();
-        this.orderedCategories =
-                new Variable<List<HCategory>>(Collections.<HCategory>emptyList());
-        this.highlightedProteins = new VolatileSet<HNode>();
-        this.highlightedInteractions = new VolatileSet<DefaultEdge>();
-        this.highlightedSets = new VolatileSet<HSet>();
-        this.activeNetwork = new Variable<Network>(dataSet.superNetwork.get());
-        this.showScore = new Variable<Boolean>(showScore);
-        this.selectionMode = selectionMode;
+        this(dataSet, applicationManager, visualMappingManager, showScore, selectionMode);
 
         // Transfer selected group nodes to HSet selection.
         final CyTable groupTable = dataSet.superNetwork.get().cyNetwork.getDefaultNodeTable();
@@ -85,6 +71,45 @@ public final class Model {
         initListeners();
     }
 
+    /**
+     * Construct model for headless cases, without synchronization of the
+     * selection to a Cytoscape session: the given sets are selected and
+     * default visual style values apply without visual mapping manager.
+     */
+    public Model(DataSet dataSet, VisualMappingManager visualMappingManager,
+                 List<HSet> selectedSets, boolean showScore) {
+        this(dataSet, null, visualMappingManager, showScore, Constants.Selection.NONE);
+
+        for (final HSet set : selectedSets) {
+            selection.add(set, 1);
+        }
+
+        initListeners();
+    }
+
+    private Model(
+            DataSet dataSet,
+            CyApplicationManager applicationManager,
+            VisualMappingManager visualMappingManager,
+            boolean showScore,
+            Constants.Selection selectionMode) {
+
+        this.dataSet = dataSet;
+        this.applicationManager = applicationManager;
+        this.visualMappingManager = visualMappingManager;
+
+        this.selection = new Selection(this);
+        this.openedCategories = new VolatileSet<HCategory>();
+        this.orderedCategories =
+                new Variable<List<HCategory>>(Collections.<HCategory>emptyList());
+        this.highlightedProteins = new VolatileSet<HNode>();
+        this.highlightedInteractions = new VolatileSet<DefaultEdge>();
+        this.highlightedSets = new VolatileSet<HSet>();
+        this.activeNetwork = new Variable<Network>(dataSet.superNetwork.get());
+        this.showScore = new Variable<Boolean>(showScore);
+        this.selectionMode = selectionMode;
+    }
+
     private void initListeners() {
 
         // Update ordered category list.
@@ -111,6 +136,11 @@ public final class Model {
         openedCategories.change.subscribe(categoryObserver);
         dataSet.categories.change.subscribe(categoryObserver);
 
+        // Headless cases do not synchronize with a Cytoscape session.
+        if (applicationManager == null) {
+            return;
+        }
+
         // Update Cytoscape selection view.
         selection.change.subscribe(new Observer() {
             public void signal() {
@@ -152,6 +182,11 @@ public final class Model {
     public <V> V styleValue(VisualProperty<V> property, CyRow cyRow) {
         V result;
 
+        // Default values without visual style.
+        if (visualMappingManager == null || cyRow == null) {
+            return property.getDefault();
+        }
+
         VisualStyle style = visualMappingManager.getCurrentVisualStyle();
         VisualMappingFunction<?, V> colorFunction = style.getVisualMappingFunction(property);
         if (colorFunction != null) {
@@ -1,6 +1,7 @@
 package org.cytoscape.examine.internal.model;
 
 import org.cytoscape.examine.internal.signal.Subject;
+import org.cytoscape.examine.internal.data.Bitmap;
 import org.cytoscape.examine.internal.data.HElement;
 import org.cytoscape.examine.internal.data.HNode;
 import org.cytoscape.examine.internal.data.HSet;
@@ -129,19 +130,29 @@ public final class Selection {
     public Set<HNode> selectedNodes(boolean intersection) {
         Set<HNode> result = new HashSet<HNode>();
         
-        if (intersection) {
-            if (activeSetList.size() > 0) {
-                    result.addAll(activeSetList.get(0).elements);
-                    for(HSet s: activeSetList) {
-                        result.retainAll(s.elements);
-                    }
-            }
-        } else {
-            for(HSet s: activeSetList) {
-                result.addAll(s.elements);
+        // Collect nodes of the sets that cover the selected node bitmap.
+        Bitmap selected = selectedNodeBitmap(intersection);
+        for(HSet s: intersection && !activeSetList.isEmpty() ? activeSetList.subList(0, 1) : activeSetList) {
+            for(HNode node: s.elements) {
+                if(selected.contains(node.index)) {
+                    result.add(node);
+                }
             }
         }
         
         return result;
     }
+    
+    /**
+     * Get the indices of the nodes that are selected, as intersection
+     * or as union of the active sets.
+     */
+    public Bitmap selectedNodeBitmap(boolean intersection) {
+        Bitmap result = activeSetList.isEmpty() ? Bitmap.EMPTY : activeSetList.get(0).members;
+        for(HSet s: activeSetList) {
+            result = intersection ? result.and(s.members) : result.or(s.members);
+        }
+        
+        return result;
+    }
 }
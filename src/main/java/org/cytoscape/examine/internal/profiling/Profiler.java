@@ -0,0 +1,173 @@
+package org.cytoscape.examine.internal.profiling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Low overhead timers and counters for the stages of a visualization,
+ * from layout to drawing and export. Thread safe, stages are
+ * timed on both the drawing and the layout threads.
+ */
+public class Profiler {
+
+    // Timed pipeline stages.
+    public enum Stage {
+        FRAME("frame"),             // Complete frame draw.
+        SCREEN("screen"),           // Screen draw of all snippets.
+        POST_SCREEN("postScreen"),  // Fading snippet draw and bookkeeping.
+        HIT_TEST("hitTest"),        // Hover detection.
+        LAYOUT("layout"),           // Layout position update.
+        CONTOURS("contours"),       // Set contour derivation.
+        EXPORT("export");           // Image export.
+
+        public final String label;
+
+        private Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    // Counted events.
+    public enum Counter {
+        SNIPPETS("snippets"),           // Drawn snippets.
+        HIT_SHAPES("hitShapes"),        // Recorded hit geometry.
+        LAYER_RENDERS("layerRenders"),  // Layer rasters rendered.
+        LAYER_REUSES("layerReuses");    // Layer rasters reused.
+
+        public final String label;
+
+        private Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    // Upper bounds of the duration histogram buckets (milliseconds),
+    // followed by a final unbounded bucket.
+    private static final double[] BUCKET_BOUNDS = {1, 2, 4, 8, 16, 33, 66, 133, 266};
+
+    // Per stage run count, total, last and maximum duration (nanoseconds).
+    private final long[] runs, totals, lasts, maxima;
+
+    // Per stage duration histogram.
+    private final long[][] histograms;
+
+    // Per counter total.
+    private final long[] counts;
+
+    public Profiler() {
+        int stages = Stage.values().length;
+        this.runs = new long[stages];
+        this.totals = new long[stages];
+        this.lasts = new long[stages];
+        this.maxima = new long[stages];
+        this.histograms = new long[stages][BUCKET_BOUNDS.length + 1];
+        this.counts = new long[Counter.values().length];
+    }
+
+    /**
+     * Start time for a stage, to be passed to stop.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Register a stage run that started at the given time.
+     */
+    public synchronized void stop(Stage stage, long start) {
+        long duration = System.nanoTime() - start;
+        int i = stage.ordinal();
+
+        runs[i]++;
+        totals[i] += duration;
+        lasts[i] = duration;
+        maxima[i] = Math.max(maxima[i], duration);
+
+        double millis = 1e-6 * duration;
+        int bucket = 0;
+        while(bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histograms[i][bucket]++;
+    }
+
+    /**
+     * Add to a counter.
+     */
+    public synchronized void count(Counter counter, long amount) {
+        counts[counter.ordinal()] += amount;
+    }
+
+    public synchronized long runs(Stage stage) {
+        return runs[stage.ordinal()];
+    }
+
+    public synchronized double lastMillis(Stage stage) {
+        return 1e-6 * lasts[stage.ordinal()];
+    }
+
+    public synchronized double meanMillis(Stage stage) {
+        int i = stage.ordinal();
+        return runs[i] == 0 ? 0 : 1e-6 * totals[i] / runs[i];
+    }
+
+    public synchronized double maxMillis(Stage stage) {
+        return 1e-6 * maxima[stage.ordinal()];
+    }
+
+    public synchronized double totalMillis(Stage stage) {
+        return 1e-6 * totals[stage.ordinal()];
+    }
+
+    public synchronized long count(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+
+    /**
+     * Upper bounds of the histogram buckets, in milliseconds. The
+     * histogram has one more bucket for all longer durations.
+     */
+    public static double[] bucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Number of runs of the given stage per duration bucket.
+     */
+    public synchronized long[] histogram(Stage stage) {
+        return histograms[stage.ordinal()].clone();
+    }
+
+    /**
+     * Clear all timers and counters.
+     */
+    public synchronized void reset() {
+        for(int i = 0; i < runs.length; i++) {
+            runs[i] = totals[i] = lasts[i] = maxima[i] = 0;
+            Arrays.fill(histograms[i], 0);
+        }
+        for(int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+
+    /**
+     * Human readable summary, one line per stage and counter.
+     */
+    public synchronized List<String> report() {
+        List<String> lines = new ArrayList<String>();
+
+        lines.add(String.format("%-12s %8s %8s %8s %8s", "stage", "runs", "last", "mean", "max"));
+        for(Stage stage: Stage.values()) {
+            lines.add(String.format("%-12s %8d %8.2f %8.2f %8.2f",
+                    stage.label, runs(stage), lastMillis(stage), meanMillis(stage), maxMillis(stage)));
+        }
+        for(Counter counter: Counter.values()) {
+            lines.add(String.format("%-12s %8d", counter.label, count(counter)));
+        }
+
+        return lines;
+    }
+
+}
@@ -2,6 +2,8 @@ package org.cytoscape.examine.internal.settings;
 
 import org.cytoscape.examine.internal.Constants;
 import org.cytoscape.examine.internal.Constants.Selection;
+import org.cytoscape.examine.internal.data.IncrementalDataSet;
+import org.cytoscape.group.CyGroupManager;
 import org.cytoscape.model.CyColumn;
 import org.cytoscape.model.CyNetwork;
 
@@ -36,7 +38,13 @@ public class NetworkSettings {
     private Selection groupSelection = Selection.NONE;
     private boolean showScore;
 
+    private final CyNetwork network;
+
+    // Data set of the network, maintained once it has been requested.
+    private IncrementalDataSet dataSet = null;
+
     public NetworkSettings(CyNetwork network) {
+        this.network = network;
 
         for (CyColumn c : network.getDefaultNodeTable().getColumns()) {
             addColumn(c);
@@ -58,6 +66,23 @@ public class NetworkSettings {
         return res;
     }
 
+    /**
+     * Data set of the network, which is maintained from here on.
+     */
+    public synchronized IncrementalDataSet getDataSet(CyGroupManager groupManager) {
+        if (dataSet == null) {
+            dataSet = new IncrementalDataSet(network, groupManager);
+        }
+        return dataSet;
+    }
+
+    /**
+     * Data set of the network if it is maintained, null otherwise.
+     */
+    public synchronized IncrementalDataSet getMaintainedDataSet() {
+        return dataSet;
+    }
+
     public boolean existsColumn(CyColumn c) {
         return trackedColumns.contains(c);
     }
@@ -1,8 +1,12 @@
 package org.cytoscape.examine.internal.settings;
 
+import org.cytoscape.examine.internal.data.IncrementalDataSet;
 import org.cytoscape.model.CyNetwork;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,7 +23,7 @@ public class SessionSettings {
 
     }
 
-    public NetworkSettings getNetworkSettings(CyNetwork network) {
+    public synchronized NetworkSettings getNetworkSettings(CyNetwork network) {
     	if (network != null) {
     		//Return the network settings if already existing, else generate a new object
             return networkSettings.computeIfAbsent(network.getSUID(), id -> new NetworkSettings(network));
@@ -30,12 +34,26 @@ public class SessionSettings {
     	}
     }
 
-    public Set<Long> getCachedNetworkUUIDs() {
-        return networkSettings.keySet();
+    public synchronized Set<Long> getCachedNetworkUUIDs() {
+        return new HashSet<Long>(networkSettings.keySet());
     }
 
-    public void removeNetworkSettings(long networkUUID) {
+    public synchronized void removeNetworkSettings(long networkUUID) {
         networkSettings.remove(networkUUID);
     }
 
+    /**
+     * Data sets that are maintained for networks.
+     */
+    public synchronized List<IncrementalDataSet> getMaintainedDataSets() {
+        List<IncrementalDataSet> dataSets = new ArrayList<IncrementalDataSet>();
+        for (NetworkSettings settings : networkSettings.values()) {
+            IncrementalDataSet dataSet = settings.getMaintainedDataSet();
+            if (dataSet != null) {
+                dataSets.add(dataSet);
+            }
+        }
+        return dataSets;
+    }
+
 }
@@ -2,10 +2,12 @@ package org.cytoscape.examine.internal.taskfactories;
 
 import org.cytoscape.examine.internal.CyServices;
 import org.cytoscape.examine.internal.settings.SessionSettings;
+import org.cytoscape.examine.internal.tasks.BatchExport;
 import org.cytoscape.examine.internal.tasks.ExamineCommand;
 import org.cytoscape.examine.internal.tasks.ExportImage;
 import org.cytoscape.examine.internal.tasks.GenerateGroups;
 import org.cytoscape.examine.internal.tasks.Interact;
+import org.cytoscape.examine.internal.tasks.Metrics;
 import org.cytoscape.examine.internal.tasks.SelectGroups;
 import org.cytoscape.examine.internal.tasks.UpdateSettings;
 import org.cytoscape.work.TaskFactory;
@@ -39,6 +41,8 @@ public class CommandTaskFactory implements TaskFactory {
 			case SELECT_GROUPS:		return new TaskIterator(new SelectGroups(services));
 			case INTERACT:			return new TaskIterator(new Interact(services, settings));
 			case EXPORT:			return new TaskIterator(new ExportImage(services, settings));
+			case METRICS:			return new TaskIterator(new Metrics());
+			case BATCH_EXPORT:		return new TaskIterator(new BatchExport(services, settings));
 			default:				return null;
 		}
 		//TODO: Might be useful to generate an error/ throw an exception here as this should never be invoked
@@ -0,0 +1,76 @@
+package org.cytoscape.examine.internal.tasks;
+
+import org.cytoscape.examine.internal.CyServices;
+import org.cytoscape.examine.internal.Utilities;
+import org.cytoscape.examine.internal.settings.SessionSettings;
+import org.cytoscape.examine.internal.visualization.ExportJob;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.TunableValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/** Exports images of many group selections of the eXamine visualization concurrently. */
+public class BatchExport implements ObservableTask, TunableValidator {
+
+    @Tunable(description="The jobs, as JSON or as the path of a jobs file", context="nogui")
+    public String jobs;
+
+    @Tunable(description="The number of concurrent exports", context="nogui")
+    public int threads = Runtime.getRuntime().availableProcessors();
+
+    private final CyServices services;
+    private final SessionSettings settings;
+
+    private String summary;
+
+    public BatchExport(CyServices services, SessionSettings settings) {
+        this.services = services;
+        this.settings = settings;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R getResults(Class<? extends R> aClass) {
+        return aClass == String.class ? (R) summary : null;
+    }
+
+    @Override
+    public void run(TaskMonitor taskMonitor) throws IOException, InterruptedException {
+        List<ExportJob> parsed = jobs.trim().startsWith("[") ?
+                ExportJob.parse(jobs) :
+                ExportJob.read(new File(jobs));
+
+        taskMonitor.setStatusMessage("Exporting " + parsed.size() + " visualizations");
+        summary = Utilities.exportVisualizations(
+                services,
+                settings.getNetworkSettings(services.getApplicationManager().getCurrentNetwork()),
+                parsed,
+                threads);
+    }
+
+    @Override
+    public void cancel() {
+
+    }
+
+    @Override
+    public ValidationState getValidationState(Appendable appendable) {
+        try {
+            if (jobs == null || jobs.trim().isEmpty()) {
+                appendable.append("No export jobs given.");
+                return ValidationState.INVALID;
+            }
+            if (threads < 1) {
+                appendable.append("The number of threads has to be positive.");
+                return ValidationState.INVALID;
+            }
+        } catch (IOException e) {
+            return ValidationState.INVALID;
+        }
+        return ValidationState.OK;
+    }
+}
@@ -28,7 +28,15 @@ public enum ExamineCommand {
     ),
     EXPORT(
             "export",
-            "Exports a visualization of the selected visualization and eXamine groups as an SVG."
+            "Exports a visualization of the selected visualization and eXamine groups as an SVG or PNG image."
+    ),
+    METRICS(
+            "metrics",
+            "Reports layout and render statistics of the open eXamine windows as JSON."
+    ),
+    BATCH_EXPORT(
+            "batch export",
+            "Exports visualizations of many eXamine group selections concurrently, given a jobs file or JSON."
     );
 
     private final String name;
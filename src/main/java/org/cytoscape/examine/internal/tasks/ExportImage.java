@@ -9,13 +9,17 @@ import org.cytoscape.work.Tunable;
 import org.cytoscape.work.TunableValidator;
 
 import java.io.File;
+import java.io.IOException;
 
 /** Exports an image of the eXamine visualization. */
 public class ExportImage implements ObservableTask, TunableValidator {
 
-    @Tunable(description="The file path to export to", context="nogui")
+    @Tunable(description="The file path to export to, as PNG for a .png extension and as SVG otherwise", context="nogui")
     public String path;
 
+    @Tunable(description="The scale of a PNG export, for example 10 for a poster", context="nogui")
+    public double scale = 1;
+
     private final CyServices services;
     private final SessionSettings settings;
 
@@ -34,7 +38,8 @@ public class ExportImage implements ObservableTask, TunableValidator {
         Utilities.exportVisualization(
                 services,
                 settings.getNetworkSettings(services.getApplicationManager().getCurrentNetwork()),
-                new File(path));
+                new File(path),
+                scale);
     }
 
     @Override
@@ -44,6 +49,14 @@ public class ExportImage implements ObservableTask, TunableValidator {
 
     @Override
     public ValidationState getValidationState(Appendable appendable) {
+        if (scale <= 0) {
+            try {
+                appendable.append("The scale has to be positive.");
+            } catch (IOException e) {
+                // Message is optional.
+            }
+            return ValidationState.INVALID;
+        }
         return ValidationState.OK;
     }
 }
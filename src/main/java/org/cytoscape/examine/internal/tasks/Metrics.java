@@ -0,0 +1,179 @@
+package org.cytoscape.examine.internal.tasks;
+
+import org.cytoscape.examine.internal.layout.Layout;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.profiling.Profiler.Counter;
+import org.cytoscape.examine.internal.profiling.Profiler.Stage;
+import org.cytoscape.examine.internal.visualization.InteractiveVisualization;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.TunableValidator;
+import org.cytoscape.work.json.JSONResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/** Reports layout and render statistics of the open eXamine windows as JSON. */
+public class Metrics implements ObservableTask, TunableValidator {
+
+    private String json;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R getResults(Class<? extends R> aClass) {
+        if (aClass == String.class) {
+            return (R) json;
+        } else if (aClass == JSONResult.class) {
+            return (R) new JSONResult() {
+
+                @Override
+                public String getJSON() {
+                    return json;
+                }
+
+            };
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Class<?>> getResultClasses() {
+        return Arrays.<Class<?>>asList(String.class, JSONResult.class);
+    }
+
+    @Override
+    public void run(TaskMonitor taskMonitor) {
+        StringBuilder b = new StringBuilder();
+        List<InteractiveVisualization> visualizations = InteractiveVisualization.openVisualizations();
+
+        b.append("{\"bucketBoundsMs\":");
+        append(b, Profiler.bucketBounds());
+        b.append(",\"windows\":[");
+        for (int i = 0; i < visualizations.size(); i++) {
+            InteractiveVisualization visualization = visualizations.get(i);
+            if (i > 0) {
+                b.append(',');
+            }
+
+            b.append("{\"window\":").append(i);
+            b.append(",\"title\":");
+            append(b, visualization.getTitle());
+            b.append(",\"layout\":");
+            append(b, visualization.layoutStatistics());
+            b.append(',');
+            append(b, visualization.getProfiler());
+            b.append('}');
+        }
+        b.append("]}");
+
+        json = b.toString();
+    }
+
+    private static void append(StringBuilder b, Layout.Statistics statistics) {
+        if (statistics == null) {
+            b.append("null");
+            return;
+        }
+
+        b.append("{\"nodes\":").append(statistics.nodes);
+        b.append(",\"richNodes\":").append(statistics.richNodes);
+        b.append(",\"dummyNodes\":").append(statistics.dummyNodes);
+        b.append(",\"matrixBytes\":").append(statistics.matrixBytes);
+        b.append(",\"descentIterations\":").append(statistics.iterations);
+        b.append(",\"stress\":");
+        append(b, statistics.stress);
+        b.append(",\"vpscProjections\":").append(statistics.projections);
+        b.append(",\"vpscConstraints\":").append(statistics.constraints);
+        b.append('}');
+    }
+
+    private static void append(StringBuilder b, Profiler profiler) {
+        b.append("\"stages\":{");
+        Stage[] stages = Stage.values();
+        for (int i = 0; i < stages.length; i++) {
+            Stage stage = stages[i];
+            if (i > 0) {
+                b.append(',');
+            }
+
+            b.append('"').append(stage.label).append("\":{");
+            b.append("\"runs\":").append(profiler.runs(stage));
+            b.append(",\"lastMs\":");
+            append(b, profiler.lastMillis(stage));
+            b.append(",\"meanMs\":");
+            append(b, profiler.meanMillis(stage));
+            b.append(",\"maxMs\":");
+            append(b, profiler.maxMillis(stage));
+            b.append(",\"histogram\":");
+            append(b, profiler.histogram(stage));
+            b.append('}');
+        }
+        b.append("},\"counters\":{");
+        Counter[] counters = Counter.values();
+        for (int i = 0; i < counters.length; i++) {
+            if (i > 0) {
+                b.append(',');
+            }
+            b.append('"').append(counters[i].label).append("\":").append(profiler.count(counters[i]));
+        }
+        b.append('}');
+    }
+
+    private static void append(StringBuilder b, double value) {
+        // JSON has no infinity or NaN.
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            b.append("null");
+        } else {
+            b.append(String.format(Locale.ROOT, "%.3f", value));
+        }
+    }
+
+    private static void append(StringBuilder b, double[] values) {
+        b.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                b.append(',');
+            }
+            append(b, values[i]);
+        }
+        b.append(']');
+    }
+
+    private static void append(StringBuilder b, long[] values) {
+        b.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                b.append(',');
+            }
+            b.append(values[i]);
+        }
+        b.append(']');
+    }
+
+    private static void append(StringBuilder b, String value) {
+        b.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                b.append('\\').append(c);
+            } else if (c < 0x20) {
+                b.append(String.format("\\u%04x", (int) c));
+            } else {
+                b.append(c);
+            }
+        }
+        b.append('"');
+    }
+
+    @Override
+    public void cancel() {
+
+    }
+
+    @Override
+    public ValidationState getValidationState(Appendable appendable) {
+        return ValidationState.OK;
+    }
+}
@@ -23,4 +23,15 @@ public class Constants {
     public static final int     BUFFER_SEGMENTS = 5;
     public static final int     LINK_SEGMENTS   = 10;
 
+    // Contour simplification tolerances per level of detail (layout space),
+    // and the maximum simplification error that is tolerated on screen (pixels).
+    public static final double[] CONTOUR_LOD_TOLERANCES = {0, 0.5, 1, 2, 4, 8};
+    public static final double  CONTOUR_LOD_ERROR       = 0.5;
+    
+    // Screen space margin around the overview within which elements are still drawn.
+    public static final double  CULL_MARGIN             = 50;
+    
+    // Bound on layout updates towards convergence for export cases.
+    public static final int     EXPORT_LAYOUT_UPDATES   = 500;
+
 }
@@ -0,0 +1,174 @@
+package org.cytoscape.examine.internal.visualization;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Export of a set selection, by set names, to a target file.
+ *
+ * Jobs are listed either as a JSON array of objects:
+ *     [{"path": "a.svg", "sets": ["set 1", "set 2"]}, ...]
+ * or as lines of a target file followed by tab separated set names.
+ */
+public class ExportJob {
+
+    // File to export to, as PNG for a .png extension and as SVG otherwise.
+    public final File target;
+
+    // Names of the sets to select.
+    public final List<String> sets;
+
+    public ExportJob(File target, List<String> sets) {
+        this.target = target;
+        this.sets = Collections.unmodifiableList(sets);
+    }
+
+    /**
+     * Read jobs from the given file, in either format.
+     */
+    public static List<ExportJob> read(File file) throws IOException {
+        return parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse jobs from the given text, in either format.
+     */
+    public static List<ExportJob> parse(String text) {
+        String trimmed = text.trim();
+        return trimmed.startsWith("[") ? new JsonParser(trimmed).jobs() : parseLines(text);
+    }
+
+    private static List<ExportJob> parseLines(String text) {
+        List<ExportJob> jobs = new ArrayList<ExportJob>();
+        for (String line : text.split("\r?\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            String[] fields = line.split("\t");
+            List<String> sets = new ArrayList<String>();
+            for (int i = 1; i < fields.length; i++) {
+                sets.add(fields[i]);
+            }
+            jobs.add(new ExportJob(new File(fields[0]), sets));
+        }
+        return jobs;
+    }
+
+    // Parser of the JSON job format only, objects with a path and sets.
+    private static class JsonParser {
+
+        private final String text;
+        private int i;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        List<ExportJob> jobs() {
+            List<ExportJob> jobs = new ArrayList<ExportJob>();
+            expect('[');
+            if (!consume(']')) {
+                do {
+                    jobs.add(job());
+                } while (consume(','));
+                expect(']');
+            }
+            return jobs;
+        }
+
+        private ExportJob job() {
+            String path = null;
+            List<String> sets = new ArrayList<String>();
+
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String key = string();
+                    expect(':');
+                    if (key.equals("path")) {
+                        path = string();
+                    } else if (key.equals("sets")) {
+                        expect('[');
+                        if (!consume(']')) {
+                            do {
+                                sets.add(string());
+                            } while (consume(','));
+                            expect(']');
+                        }
+                    } else {
+                        throw error("unknown key " + key);
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+
+            if (path == null) {
+                throw error("job without path");
+            }
+            return new ExportJob(new File(path), sets);
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder b = new StringBuilder();
+            while (i < text.length() && text.charAt(i) != '"') {
+                char c = text.charAt(i++);
+                if (c == '\\' && i < text.length()) {
+                    char e = text.charAt(i++);
+                    switch (e) {
+                        case 'n': b.append('\n'); break;
+                        case 't': b.append('\t'); break;
+                        case 'r': b.append('\r'); break;
+                        case 'b': b.append('\b'); break;
+                        case 'f': b.append('\f'); break;
+                        case 'u':
+                            if (i + 4 > text.length()) {
+                                throw error("truncated escape");
+                            }
+                            b.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                            i += 4;
+                            break;
+                        default: b.append(e);
+                    }
+                } else {
+                    b.append(c);
+                }
+            }
+            expect('"');
+            return b.toString();
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (i < text.length() && text.charAt(i) == c) {
+                i++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("expected " + c);
+            }
+        }
+
+        private void skipWhitespace() {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid export jobs at " + i + ": " + message);
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package org.cytoscape.examine.internal.visualization;
+
+import org.cytoscape.examine.internal.data.DataSet;
+import org.cytoscape.examine.internal.data.DataSetReader;
+import org.cytoscape.examine.internal.data.HCategory;
+import org.cytoscape.examine.internal.data.HSet;
+import org.cytoscape.examine.internal.graphics.TextCache;
+import org.cytoscape.examine.internal.model.Model;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.view.vizmap.VisualMappingManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports visualizations of set selections without Cytoscape session,
+ * window or display. Layout and contours of every export are derived on
+ * a worker thread of a bounded pool; the network, sets and text metrics
+ * are shared.
+ *
+ * Usage (with -Djava.awt.headless=true):
+ *     HeadlessExport <data directory> <jobs file> [threads]
+ * where the jobs file is in a format of {@link ExportJob}.
+ */
+public class HeadlessExport {
+
+    private final DataSet dataSet;
+    private final VisualMappingManager visualMappingManager;
+    private final Map<String, HSet> setsByName;
+    private final TextCache textCache;
+    private final ExecutorService executor;
+
+    /**
+     * @param dataSet Network and sets to export selections of.
+     * @param threads Number of concurrent exports.
+     */
+    public HeadlessExport(DataSet dataSet, int threads) {
+        this(dataSet, null, threads);
+    }
+
+    /**
+     * @param dataSet Network and sets to export selections of.
+     * @param visualMappingManager Source of node styles, default styles if null.
+     * @param threads Number of concurrent exports.
+     */
+    public HeadlessExport(DataSet dataSet, VisualMappingManager visualMappingManager, int threads) {
+        this.dataSet = dataSet;
+        this.visualMappingManager = visualMappingManager;
+        this.setsByName = setsByName(dataSet);
+        this.textCache = new TextCache();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    }
+
+    /**
+     * Schedule the given job, of which unknown set names are ignored.
+     */
+    public Future<Profiler> submit(ExportJob job) {
+        List<HSet> sets = new ArrayList<HSet>();
+        for (String name : job.sets) {
+            HSet set = setsByName.get(name);
+            if (set != null) {
+                sets.add(set);
+            }
+        }
+        return submit(sets, job.target);
+    }
+
+    /**
+     * Schedule the export of the given set selection to the given
+     * file, as PNG for a .png extension and as SVG otherwise.
+     * The future provides the export timings.
+     */
+    public Future<Profiler> submit(final List<HSet> sets, final File target) {
+        return executor.submit(new Callable<Profiler>() {
+
+            @Override
+            public Profiler call() throws IOException {
+                return export(dataSet, visualMappingManager, textCache, sets, target);
+            }
+
+        });
+    }
+
+    /**
+     * Stop accepting exports and wait for the scheduled ones to finish.
+     */
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Export the given set selection to the given file, on the calling thread.
+     */
+    public static Profiler export(DataSet dataSet, List<HSet> sets, File target) throws IOException {
+        return export(dataSet, null, new TextCache(), sets, target);
+    }
+
+    private static Profiler export(DataSet dataSet, VisualMappingManager visualMappingManager,
+                                   TextCache textCache, List<HSet> sets, File target) throws IOException {
+        // Own signals per export, the network and sets are shared.
+        final DataSet view = new DataSet(dataSet.superNetwork.get(), dataSet.categories.get());
+        final Model model = new Model(view, visualMappingManager, sets, false);
+        final SnapshotVisualization visualization = new SnapshotVisualization(view, model, textCache);
+
+        if (target.getName().toLowerCase().endsWith(".png")) {
+            // Exports run concurrently already, render tiles on the calling thread.
+            visualization.exportPNG(target, 1, 1);
+        } else {
+            visualization.exportSVG(target);
+        }
+
+        return visualization.getProfiler();
+    }
+
+    /**
+     * Sets of the data set by name.
+     */
+    public static Map<String, HSet> setsByName(DataSet dataSet) {
+        Map<String, HSet> sets = new HashMap<String, HSet>();
+        for (HCategory category : dataSet.categories.get().values()) {
+            for (HSet set : category.members) {
+                sets.put(set.name, set);
+            }
+        }
+        return sets;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: HeadlessExport <data directory> <jobs file> [threads]");
+            System.exit(1);
+        }
+
+        final DataSet dataSet = DataSetReader.read(new File(args[0]));
+        final Map<String, HSet> sets = setsByName(dataSet);
+        final List<ExportJob> jobs = ExportJob.read(new File(args[1]));
+        final int threads = args.length > 2 ?
+                Integer.parseInt(args[2]) :
+                Runtime.getRuntime().availableProcessors();
+        final HeadlessExport export = new HeadlessExport(dataSet, threads);
+
+        // Schedule jobs.
+        final List<Future<Profiler>> results = new ArrayList<Future<Profiler>>();
+        for (ExportJob job : jobs) {
+            for (String name : job.sets) {
+                if (!sets.containsKey(name)) {
+                    System.err.println("Unknown set: " + name);
+                }
+            }
+            results.add(export.submit(job));
+        }
+
+        // Report per job.
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                Profiler profiler = results.get(i).get();
+                System.out.println(String.format("%s\t%.1f ms", jobs.get(i).target,
+                        profiler.totalMillis(Profiler.Stage.EXPORT)));
+            } catch (ExecutionException ex) {
+                System.err.println(jobs.get(i).target + "\t" + ex.getCause());
+            }
+        }
+
+        export.shutdown();
+    }
+
+}
@@ -1,17 +1,130 @@
 package org.cytoscape.examine.internal.visualization;
 
 import org.cytoscape.examine.internal.data.DataSet;
+import org.cytoscape.examine.internal.data.HSet;
 import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
 import org.cytoscape.examine.internal.graphics.ApplicationFrame;
 
+import org.cytoscape.examine.internal.layout.Layout;
 import org.cytoscape.examine.internal.model.Model;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.signal.Observer;
+import org.cytoscape.examine.internal.signal.Subject.SubjectJoin;
+import org.cytoscape.examine.internal.visualization.overview.Overview;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.view.vizmap.VisualMappingManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class InteractiveVisualization extends Visualization {
 
+    // Visualizations with an open window.
+    private static final List<InteractiveVisualization> openVisualizations =
+            new ArrayList<InteractiveVisualization>();
+
+    private final VisualizationFrame frame;
 
     public InteractiveVisualization(DataSet dataSet, Model model) {
         super(dataSet, model);
-        new VisualizationFrame(); //TODO: Dispose? This needs to be called as it is a JFrame
+        frame = new VisualizationFrame();
+        synchronized (openVisualizations) {
+            openVisualizations.add(this);
+        }
+
+        // Redraw on model changes, the frame is otherwise idle when at rest.
+        SubjectJoin modelChange = new SubjectJoin(
+                dataSet.categories.change,
+                model.selection.change,
+                model.openedCategories.change,
+                model.orderedCategories.change,
+                model.highlightedProteins.change,
+                model.highlightedInteractions.change,
+                model.highlightedSets.change,
+                model.activeNetwork.change,
+                model.showScore.change);
+        modelChange.subscribe(new Observer() {
+
+            @Override
+            public void signal() {
+                frame.requestRedraw();
+            }
+
+        });
+    }
+
+    /**
+     * Visualizations with an open window, in order of opening.
+     */
+    public static List<InteractiveVisualization> openVisualizations() {
+        synchronized (openVisualizations) {
+            return new ArrayList<InteractiveVisualization>(openVisualizations);
+        }
+    }
+
+    /**
+     * Open visualization of the given network with the given sets (by name)
+     * selected, null if there is none. Windows that have been closed are skipped.
+     */
+    public static InteractiveVisualization showing(CyNetwork network, Collection<String> setNames) {
+        final Set<String> names = new HashSet<String>(setNames);
+        for (InteractiveVisualization visualization : openVisualizations()) {
+            if (visualization.frame.isDisplayable() &&
+                    visualization.dataSet.superNetwork.get().cyNetwork == network &&
+                    names.equals(setNames(visualization.model.selection.activeSetList))) {
+                return visualization;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Snapshot visualization of what the window shows, with its layout and set
+     * contours instead of newly computed ones. Null if the layout has not
+     * converged yet, as the export would otherwise show an intermediate frame.
+     */
+    public SnapshotVisualization snapshot(VisualMappingManager visualMappingManager) {
+        final Overview.Snapshot snapshot = overview.snapshot();
+        final List<HSet> sets = new ArrayList<HSet>(model.selection.activeSetList);
+        if (snapshot == null || !new HashSet<HSet>(sets).equals(new HashSet<HSet>(snapshot.sets()))) {
+            return null;
+        }
+
+        // Own signals for the export, the network and sets are shared.
+        final DataSet view = new DataSet(dataSet.superNetwork.get(), dataSet.categories.get());
+        final Model viewModel = new Model(view, visualMappingManager, sets, model.showScore.get());
+        viewModel.openedCategories.set(model.openedCategories.get());
+
+        final SnapshotVisualization visualization = new SnapshotVisualization(view, viewModel);
+        visualization.overview.adopt(snapshot);
+        return visualization;
+    }
+
+    // Names of the given sets.
+    private static Set<String> setNames(Collection<HSet> sets) {
+        final Set<String> names = new HashSet<String>();
+        for (HSet set : sets) {
+            names.add(set.name);
+        }
+        return names;
+    }
+
+    public String getTitle() {
+        return frame.getTitle();
+    }
+
+    public Profiler getProfiler() {
+        return frame.getProfiler();
+    }
+
+    /**
+     * Statistics of the current overview layout, null before the first layout.
+     */
+    public Layout.Statistics layoutStatistics() {
+        return overview.layoutStatistics();
     }
 
     @SuppressWarnings("serial") //Will not be serialized (We can use export functionality instead)
@@ -25,6 +138,9 @@ public class InteractiveVisualization extends Visualization {
         @Override
         public void dispose() {
             overview.stop();    // Request overview animation stop.
+            synchronized (openVisualizations) {
+                openVisualizations.remove(InteractiveVisualization.this);
+            }
             super.dispose();
         }
     }
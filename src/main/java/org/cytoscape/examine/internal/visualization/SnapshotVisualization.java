@@ -1,24 +1,47 @@
 package org.cytoscape.examine.internal.visualization;
 
-import org.apache.batik.dom.GenericDOMImplementation;
-import org.apache.batik.svggen.SVGGeneratorContext;
-import org.apache.batik.svggen.SVGGraphics2D;
 import org.cytoscape.examine.internal.data.DataSet;
 import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.graphics.PVector;
+import org.cytoscape.examine.internal.graphics.SVGStreamGraphics;
+import org.cytoscape.examine.internal.graphics.Scene;
+import org.cytoscape.examine.internal.graphics.TextCache;
+import org.cytoscape.examine.internal.graphics.TiledPNGWriter;
+import org.cytoscape.examine.internal.graphics.draw.Constants;
 import org.cytoscape.examine.internal.model.Model;
-import org.w3c.dom.DOMImplementation;
-import org.w3c.dom.Document;
+import org.cytoscape.examine.internal.profiling.Profiler;
+import org.cytoscape.examine.internal.profiling.Profiler.Stage;
 
 import java.awt.*;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 public class SnapshotVisualization extends Visualization {
 
+    // Export timings.
+    private final Profiler profiler;
+
+    // Text metrics, possibly shared with other exports.
+    private final TextCache textCache;
+
     public SnapshotVisualization(DataSet dataSet, Model model) {
+        this(dataSet, model, new TextCache());
+    }
+
+    public SnapshotVisualization(DataSet dataSet, Model model, TextCache textCache) {
         super(dataSet, model);
+        this.profiler = new Profiler();
+        this.textCache = textCache;
+
+        // Fonts are otherwise only loaded by an opened window.
+        Constants.loadFonts();
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
     }
 
     @Override
@@ -28,28 +51,63 @@ public class SnapshotVisualization extends Visualization {
     }
 
     public void exportSVG(File exportFile) throws IOException {
-        // Create document.
-        final DOMImplementation domImpl = GenericDOMImplementation.getDOMImplementation();
-        final String svgNS = "http://www.w3.org/2000/svg";
-        final Document document = domImpl.createDocument(svgNS, "svg", null);
+        long start = profiler.start();
 
-        // Embed fonts.
-        final SVGGeneratorContext ctx = SVGGeneratorContext.createDefault(document);
-        ctx.setEmbeddedFontsOn(true);
+        // Measure (and lay out) with the text metrics of the SVG output, then stream drawing to file.
+        final PVector extent = measure();
+        final Writer out = Files.newBufferedWriter(exportFile.toPath(), StandardCharsets.UTF_8);
+        try {
+            final SVGStreamGraphics svgGraphics = new SVGStreamGraphics(out, extent.x, extent.y);
+            visualize(svgGraphics);
+            svgGraphics.finish();
+        } finally {
+            out.close();
+        }
 
-        // Write visualization.
-        final SVGGraphics2D svgGraphics = new SVGGraphics2D(ctx, true);
-        visualize(svgGraphics);
+        profiler.stop(Stage.EXPORT, start);
+    }
+
+    /**
+     * Export as PNG image, at the given scale (for example 2 for high density displays,
+     * or more for posters), rendered on all cores. Does not require a display.
+     */
+    public void exportPNG(File exportFile, double scale) throws IOException {
+        exportPNG(exportFile, scale, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Export as PNG image, at the given scale, rendered in tiles on the given number of threads.
+     * Memory use is bounded by the image width rather than its size.
+     */
+    public void exportPNG(File exportFile, double scale, int threads) throws IOException {
+        long start = profiler.start();
+
+        // Record (and lay out) the scene once, then render it in tiles.
+        final Scene.Recorder recorder = new Scene.Recorder();
+        final PVector extent = visualize(recorder);
+        TiledPNGWriter.write(
+                recorder.scene(),
+                scale,
+                Math.max(1, (int) Math.ceil(scale * extent.x)),
+                Math.max(1, (int) Math.ceil(scale * extent.y)),
+                Color.WHITE,
+                exportFile,
+                threads);
+
+        profiler.stop(Stage.EXPORT, start);
+    }
 
-        final Writer out = new FileWriter(exportFile);
-        svgGraphics.stream(out, true);
+    // Extent of the visualization, lays it out on first use. Recorded as for PNG export,
+    // such that labels are measured in the font render context of vector output.
+    private PVector measure() {
+        return visualize(new Scene.Recorder());
     }
 
-    private void visualize(Graphics2D graphics) {
-        final AnimatedGraphics animatedGraphics = new AnimatedGraphics(graphics);
+    private PVector visualize(Graphics2D graphics) {
+        final AnimatedGraphics animatedGraphics = new AnimatedGraphics(graphics, profiler, textCache);
 
         animatedGraphics.getDrawManager().pre();
-        drawVisualization(animatedGraphics, 0, 0);
+        return drawVisualization(animatedGraphics, 0, 0);
     }
 
 }
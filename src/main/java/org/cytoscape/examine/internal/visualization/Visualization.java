@@ -13,15 +13,13 @@ import org.cytoscape.examine.internal.visualization.overview.Overview;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import static org.cytoscape.examine.internal.visualization.Constants.MARGIN;
 
 abstract class Visualization {
 
-    private final DataSet dataSet;
-    private final Model model;
+    final DataSet dataSet;
+    final Model model;
 
     public final SetColors setColors;
     final Overview overview;
@@ -46,7 +44,8 @@ abstract class Visualization {
         overview = new Overview(model, setColors);
     }
 
-    void drawVisualization(AnimatedGraphics g, double availableWidth, double availableHeight) {
+    // Draw visualization, returns the extent of the drawn content including margins.
+    PVector drawVisualization(AnimatedGraphics g, double availableWidth, double availableHeight) {
 
         // Construct set lists.
         if (setLists.isEmpty()) {
@@ -109,11 +108,8 @@ abstract class Visualization {
         g.fillRect(-MARGIN, -MARGIN, shiftPos.x + MARGIN, availableHeight);
         g.snippets(sideSnippets);
 
-        try {
-            Thread.sleep(25);
-        } catch (InterruptedException ex) {
-            Logger.getLogger(InteractiveVisualization.class.getName()).log(Level.SEVERE, null, ex);
-        }
+        return PVector.v(2 * MARGIN + Math.max(termBounds.x, shiftPos.x + overview.bounds.x),
+                         2 * MARGIN + Math.max(termBounds.y, shiftPos.y + overview.bounds.y));
     }
 
 }
@@ -0,0 +1,13 @@
+package org.cytoscape.examine.internal.visualization.overview;
+
+import java.awt.geom.Rectangle2D;
+
+// Overview element with known bounds in layout space, for viewport culling.
+interface Bounded {
+    
+    /**
+     * Bounds in layout space, or null when not (yet) known.
+     */
+    Rectangle2D layoutBounds();
+    
+}
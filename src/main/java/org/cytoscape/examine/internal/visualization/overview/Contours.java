@@ -10,6 +10,7 @@ import org.cytoscape.examine.internal.graphics.PVector;
 import org.cytoscape.examine.internal.layout.Layout;
 import org.cytoscape.examine.internal.layout.Layout.RichEdge;
 import org.cytoscape.examine.internal.layout.Layout.RichNode;
+import org.cytoscape.examine.internal.profiling.Profiler.Stage;
 import org.cytoscape.examine.internal.visualization.Util;
 
 import java.util.ArrayList;
@@ -40,9 +41,11 @@ public class Contours {
         this.outlineShapes = new ArrayList<Geometry>();
         
         // Compute contour shapes.
+        long start = graphics.getProfiler().start();
         for(HSet set: layout.sets) {
             deriveContour(graphics, set, layout);
         }
+        graphics.getProfiler().stop(Stage.CONTOURS, start);
     }
     
     private void deriveContour(AnimatedGraphics g, HSet set, Layout layout) {
@@ -82,7 +85,7 @@ public class Contours {
                 PVector tP = layout.position(tN.element);
                 RichNode dN = e.subNode;
                 PVector dP = layout.position(dN);
-                boolean hasCore = layout.network.graph.containsEdge(sN.element, tN.element);
+                boolean hasCore = layout.network.compact().containsEdge(sN.element, tN.element);
                 
                 // Radius of set around vertex.
                 double edgeIndex = 0.51 + ind;
@@ -9,6 +9,7 @@ import org.cytoscape.examine.internal.model.Model;
 import org.jgrapht.graph.DefaultEdge;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -17,7 +18,7 @@ import static org.cytoscape.examine.internal.graphics.draw.Constants.TEXT_COLOR;
 import static org.cytoscape.examine.internal.visualization.Constants.LINK_WIDTH;
 
 // Link representation.
-public class LinkRepresentation extends Representation<LinkRepresentation.Link> {
+public class LinkRepresentation extends Representation<LinkRepresentation.Link> implements Bounded {
 
     private final Model model;
     public final DefaultEdge edge;  // Underlying edge.
@@ -41,6 +42,18 @@ public class LinkRepresentation extends Representation<LinkRepresentation.Link>
         return PVector.v();
     }
 
+    @Override
+    public Rectangle2D layoutBounds() {
+        // Arc bulges at most half its chord beyond its points.
+        double minX = Math.min(cs[0].x, Math.min(cs[1].x, cs[2].x));
+        double minY = Math.min(cs[0].y, Math.min(cs[1].y, cs[2].y));
+        double maxX = Math.max(cs[0].x, Math.max(cs[1].x, cs[2].x));
+        double maxY = Math.max(cs[0].y, Math.max(cs[1].y, cs[2].y));
+        double pad = 0.5 * Math.hypot(cs[2].x - cs[0].x, cs[2].y - cs[0].y) + LINK_WIDTH + 4;
+        
+        return new Rectangle2D.Double(minX - pad, minY - pad, maxX - minX + 2 * pad, maxY - minY + 2 * pad);
+    }
+
     @Override
     public void draw(AnimatedGraphics g) {
         boolean highlight = model.highlightedInteractions.get().contains(edge);
@@ -82,8 +95,11 @@ public class LinkRepresentation extends Representation<LinkRepresentation.Link>
         
         // Intersect annotation sets.
         Set<HSet> hT = new HashSet<HSet>();
-        hT.addAll(element.node1.sets);
-        hT.retainAll(element.node2.sets);
+        for(HSet set: element.node1.sets) {
+            if(set.contains(element.node2)) {
+                hT.add(set);
+            }
+        }
         model.highlightedSets.set(hT);
     }
 
@@ -17,6 +17,7 @@ import org.jgrapht.graph.DefaultEdge;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.io.IOException;
 import java.net.URI;
@@ -30,10 +31,13 @@ import static org.cytoscape.examine.internal.graphics.draw.Constants.TEXT_CONTAI
 import static org.cytoscape.examine.internal.visualization.Constants.NODE_OUTLINE;
 
 // Node representation.
-public class NodeRepresentation extends Representation<HNode> {
+public class NodeRepresentation extends Representation<HNode> implements Bounded {
 
     private final Model model;
     
+    // Label bounds of last draw.
+    private PVector labelBounds;
+    
     public NodeRepresentation(Model model, HNode element) {
         super(element);
 
@@ -45,6 +49,18 @@ public class NodeRepresentation extends Representation<HNode> {
         return PVector.v();
     }
 
+    @Override
+    public Rectangle2D layoutBounds() {
+        PVector bounds = labelBounds;
+        
+        return bounds == null ?
+                null :
+                new Rectangle2D.Double(topLeft.x - 0.5 * bounds.x - NODE_OUTLINE,
+                                       topLeft.y - 0.5 * bounds.y - NODE_OUTLINE,
+                                       bounds.x + 2 * NODE_OUTLINE,
+                                       bounds.y + 2 * NODE_OUTLINE);
+    }
+
     @Override
     public void draw(AnimatedGraphics g) {
         g.color(Color.BLACK);
@@ -52,6 +68,7 @@ public class NodeRepresentation extends Representation<HNode> {
         
         // Get label bounds, but also sets label font.
         PVector bounds = Layout.labelDimensions(g, element, true);
+        labelBounds = bounds;
         Shape shape = shape(bounds);
         g.translate(-0.5 * bounds.x, -0.5 * bounds.y);
         
@@ -136,8 +153,7 @@ public class NodeRepresentation extends Representation<HNode> {
         
         // Highlight interactions.
         Set<DefaultEdge> hI = new HashSet<DefaultEdge>();
-        Set<DefaultEdge> edges = model.activeNetwork.get().graph.edgesOf(element);
-        hI.addAll(edges);
+        hI.addAll(model.activeNetwork.get().compact().edgesOf(element));
         model.highlightedInteractions.set(hI);
         
         // Highlight member terms.
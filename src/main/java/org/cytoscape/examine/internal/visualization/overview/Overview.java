@@ -5,24 +5,31 @@ import org.cytoscape.examine.internal.data.HNode;
 import org.cytoscape.examine.internal.data.HSet;
 import org.cytoscape.examine.internal.data.Network;
 import org.cytoscape.examine.internal.graphics.AnimatedGraphics;
+import org.cytoscape.examine.internal.graphics.Layer;
 import org.cytoscape.examine.internal.graphics.PVector;
 import org.cytoscape.examine.internal.graphics.draw.PositionedSnippet;
+import org.cytoscape.examine.internal.graphics.draw.Snippet;
 import org.cytoscape.examine.internal.layout.Layout;
 import org.cytoscape.examine.internal.layout.Layout.RichEdge;
 import org.cytoscape.examine.internal.model.Model;
 import org.cytoscape.examine.internal.signal.Observer;
+import org.cytoscape.examine.internal.signal.Subject.SubjectJoin;
 import org.cytoscape.examine.internal.visualization.SetColors;
 import org.jgrapht.graph.DefaultEdge;
 
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static org.cytoscape.examine.internal.graphics.draw.Constants.FRAME_INTERVAL;
 import static org.cytoscape.examine.internal.graphics.draw.Constants.LABEL_FONT;
+import static org.cytoscape.examine.internal.visualization.Constants.CULL_MARGIN;
+import static org.cytoscape.examine.internal.visualization.Constants.EXPORT_LAYOUT_UPDATES;
 
 // Network overview.
 public class Overview extends PositionedSnippet {
@@ -49,13 +56,31 @@ public class Overview extends PositionedSnippet {
     private boolean updateGoAhead;
     
     private Thread updater;
+    private LayoutUpdater layoutUpdater;
+    
+    // Whether the layout has been computed, for export cases.
+    private boolean laidOut;
+    
+    // Layout and contours to show instead of computing them, for export cases.
+    private Snapshot adopted;
     
     // Zooming and panning.
     private double zoomFactor;
     private PVector panTranslation;
     private Point2D lastMousePos;
+    
+    // Visible area in layout space, null when everything is drawn.
+    private Rectangle2D visibleArea;
 
     private AnimatedGraphics lastAnimatedGraphics;
+    
+    // Layout statistics as of the last update.
+    private volatile Layout.Statistics layoutStatistics;
+    
+    // Retained layer of set contours and links, with its content version.
+    private final Layer contentLayer;
+    private volatile long contentVersion;
+    private final SubjectJoin contentChange;
 
     public Overview(Model model, SetColors setColors) {
         this.model = model;
@@ -70,11 +95,86 @@ public class Overview extends PositionedSnippet {
         
         this.zoomFactor = 1;
         this.panTranslation = PVector.v();
+        
+        // Set contours and links, redrawn when they are replaced or highlighted.
+        this.contentLayer = new Layer() {
+
+            @Override
+            public void draw(AnimatedGraphics g) {
+                // Set bodies first, then outlines on top.
+                synchronized (setRepresentations) {
+                    visibleSnippets(g, setRepresentations);
+
+                    g.noTransition();
+                    for (SetContour sR : setRepresentations) {
+                        if(isVisible(sR)) {
+                            sR.drawOutline(g);
+                        }
+                    }
+                    g.transition();
+                }
+                synchronized (interactionRepresentations) {
+                    visibleSnippets(g, interactionRepresentations);
+                }
+            }
+
+            @Override
+            public void retain(AnimatedGraphics g) {
+                synchronized (setRepresentations) {
+                    g.retain(setRepresentations);
+                }
+                synchronized (interactionRepresentations) {
+                    g.retain(interactionRepresentations);
+                }
+            }
+            
+        };
+        this.contentChange = new SubjectJoin(
+                model.highlightedSets.change,
+                model.highlightedInteractions.change,
+                model.selection.change);
+        this.contentChange.subscribe(new Observer() {
+
+            @Override
+            public void signal() {
+                contentVersion++;
+            }
+            
+        });
     }
 
     // Stop update for disposal.
     public void stop() {
         updateGoAhead = false;
+        
+        // Wake idle updater.
+        if(updater != null) {
+            updater.interrupt();
+        }
+    }
+    
+    /**
+     * Snapshot of the current layout and set contours, null while the
+     * layout has not converged.
+     */
+    public Snapshot snapshot() {
+        LayoutUpdater currentUpdater = layoutUpdater;
+        return currentUpdater == null ? null : currentUpdater.snapshot();
+    }
+    
+    /**
+     * Show the given snapshot instead of computing a layout, for export cases.
+     * The snapshot sets have to be the selected sets of the model.
+     */
+    public void adopt(Snapshot snapshot) {
+        adopted = snapshot;
+    }
+    
+    /**
+     * Statistics of the current layout, null before the first layout.
+     */
+    public Layout.Statistics layoutStatistics() {
+        return layoutStatistics;
     }
     
     @Override
@@ -95,18 +195,27 @@ public class Overview extends PositionedSnippet {
         if(updater == null) {
             // Do continuous update for interactive animation cases.
             if(g.getDrawManager().isAnimated()) {
-                updater = new Thread(new LayoutUpdater());
+                layoutUpdater = new LayoutUpdater();
+                updater = new Thread(layoutUpdater);
                 updater.setPriority(Thread.MIN_PRIORITY);
                 updater.start();
-            } else {
-                // Do single layout for export cases.
-                LayoutUpdater layoutUpdater = new LayoutUpdater();
-                layoutUpdater.update();
-
-                bounds.x = span.x;
-                bounds.y = span.y;
+            } else if(!laidOut) {
+                // Do converged layout for export cases, once, or show an adopted one.
+                layoutUpdater = new LayoutUpdater();
+                if(adopted == null) {
+                    layoutUpdater.converge();
+                } else {
+                    layoutUpdater.show(adopted);
+                }
+                laidOut = true;
             }
         }
+        
+        // Fit bounds to layout for export cases.
+        if(!g.getDrawManager().isAnimated()) {
+            bounds.x = span.x;
+            bounds.y = span.y;
+        }
 
         g.translate(topLeft);
         
@@ -124,25 +233,42 @@ public class Overview extends PositionedSnippet {
         g.transition();
 
         g.translate(-0.5 * span.x, -0.5 * span.y);
+        
+        // Cull elements outside of the overview for interaction, where zoom and pan apply.
+        if(g.getDrawManager().isAnimated()) {
+            visibleArea = new Rectangle2D.Double(
+                    0.5 * span.x + (-CULL_MARGIN - 0.5 * bounds.x - panTranslation.x) / zoomFactor,
+                    0.5 * span.y + (-CULL_MARGIN - 0.5 * bounds.y - panTranslation.y) / zoomFactor,
+                    (bounds.x + 2 * CULL_MARGIN) / zoomFactor,
+                    (bounds.y + 2 * CULL_MARGIN) / zoomFactor);
+        } else {
+            visibleArea = null;
+        }
 
         // Small font.
         g.textFont(LABEL_FONT);
 
-        // Set bodies first, then outlines on top.
-        synchronized (setRepresentations) {
-            g.snippets(setRepresentations);
-
-            g.noTransition();
-            for (SetContour sR : setRepresentations) {
-                sR.drawOutline(g);
-            }
-            g.transition();
-        }
-        synchronized (interactionRepresentations) {
-            g.snippets(interactionRepresentations);
-        }
+        // Set contours and links, then nodes on top.
+        g.layer(contentLayer, contentVersion);
         synchronized (nodeRepresentations) {
-            g.snippets(nodeRepresentations);
+            visibleSnippets(g, nodeRepresentations);
+        }
+    }
+    
+    // Whether element intersects the visible area.
+    private boolean isVisible(Bounded element) {
+        Rectangle2D elementBounds = element.layoutBounds();
+        return visibleArea == null || elementBounds == null || visibleArea.intersects(elementBounds);
+    }
+    
+    // Draw visible snippets (in order), keep culled snippets alive.
+    private <E extends Snippet & Bounded> void visibleSnippets(AnimatedGraphics g, List<E> snippets) {
+        for(E s: snippets) {
+            if(isVisible(s)) {
+                g.snippet(s);
+            } else {
+                g.retain(s);
+            }
         }
     }
 
@@ -180,6 +306,7 @@ public class Overview extends PositionedSnippet {
         private boolean layoutDirty;    // Layout has to be replaced flag.
         private Network contextNetwork; // Context network that is being visualized.
         private Contours setContours;   // Set contours.
+        private boolean converged;      // Layout has converged flag.
 
         // Constructor.
         public LayoutUpdater() {
@@ -191,6 +318,9 @@ public class Overview extends PositionedSnippet {
                         // Now bypassed to super network for Cytoscape integration.
                         contextNetwork = model.activeNetwork.get();
                         layoutDirty = true;
+                        
+                        // Wake idle updater.
+                        LayoutUpdater.this.notifyAll();
                     }
                 }
             };
@@ -204,32 +334,47 @@ public class Overview extends PositionedSnippet {
             // Update while no terminate has been requested.
             while (updateGoAhead) {
                 try {
-                    update();
-                    Thread.sleep(25);
+                    if(update()) {
+                        lastAnimatedGraphics.getDrawManager().requestRedraw();
+                        Thread.sleep(FRAME_INTERVAL);
+                    } else {
+                        // Idle until the model changes.
+                        synchronized(LayoutUpdater.this) {
+                            while(updateGoAhead && !layoutDirty) {
+                                LayoutUpdater.this.wait();
+                            }
+                        }
+                    }
                 } catch (InterruptedException ex) {
-                    Logger.getLogger(Overview.class.getName()).log(Level.SEVERE, null, ex);
+                    if(updateGoAhead) {
+                        Logger.getLogger(Overview.class.getName()).log(Level.SEVERE, null, ex);
+                    }
                 }
             }
         }
 
-        // Update layout.
-        public void update() {
+        // Update layout, returns whether the layout has changed.
+        public boolean update() {
             if(lastAnimatedGraphics == null) {
-                return;
+                return false;
             }
+            
+            boolean changed = false;
 
             synchronized(LayoutUpdater.this) {
                 if (layoutDirty || layout == null) {
                     layoutDirty = false;
                     layout = new Layout(lastAnimatedGraphics, contextNetwork, model.selection, layout);
+                    converged = false;
                     updateNodeRepresentations();
                     updateInteractionRepresentations();
                     updateSetRepresentations();
                     span = layout.dimensions;
+                    changed = true;
                 }
 
                 if (layout.nodes.length > 0) {
-                    boolean converged = layout.updatePositions(lastAnimatedGraphics);
+                    converged = layout.updatePositions(lastAnimatedGraphics);
 
                     if(!converged) {
                         // Update node positions.
@@ -241,8 +386,59 @@ public class Overview extends PositionedSnippet {
 
                         // Update centering shift.
                         span = layout.dimensions;
+                        changed = true;
                     }
+                } else {
+                    converged = true;
                 }
+                
+                layoutStatistics = layout.statistics();
+            }
+            
+            return changed;
+        }
+
+        // Update layout until it has converged, for export cases.
+        public void converge() {
+            update();
+
+            synchronized(LayoutUpdater.this) {
+                if (layout == null || layout.nodes.length == 0) {
+                    return;
+                }
+
+                boolean converged = false;
+                for (int i = 0; i < EXPORT_LAYOUT_UPDATES && !converged; i++) {
+                    converged = layout.updatePositions(lastAnimatedGraphics);
+                }
+
+                // Representations of final positions only.
+                updateNodePositions();
+                updateInteractionRepresentations();
+                updateSetRepresentations();
+                span = layout.dimensions;
+                layoutStatistics = layout.statistics();
+            }
+        }
+
+        // Show the given layout and contours, for export cases.
+        public void show(Snapshot snapshot) {
+            synchronized(LayoutUpdater.this) {
+                layout = snapshot.layout;
+                updateNodeRepresentations();
+                updateInteractionRepresentations();
+                transferSetRepresentations(snapshot.contours);
+                span = layout.dimensions;
+                layoutStatistics = layout.statistics();
+            }
+        }
+        
+        // Snapshot of the current layout and contours, null while it has not converged.
+        public Snapshot snapshot() {
+            synchronized(LayoutUpdater.this) {
+                return layout == null || setContours == null || layoutDirty || !converged ?
+                       null :
+                       new Snapshot(layout.snapshot(), setContours);
             }
         }
 
@@ -284,7 +480,7 @@ public class Overview extends PositionedSnippet {
                     intCs[2] = layout.position(tP);
 
                     // Representation.
-                    DefaultEdge originalEdge = layout.network.graph.getEdge(sP, tP);
+                    DefaultEdge originalEdge = layout.network.compact().getEdge(sP, tP);
                     LinkRepresentation rep
                             = new LinkRepresentation(model, originalEdge, sP, tP, intCs);
                     iR.add(rep);
@@ -294,20 +490,27 @@ public class Overview extends PositionedSnippet {
             synchronized (interactionRepresentations) {
                 interactionRepresentations.clear();
                 interactionRepresentations.addAll(iR);
+                contentVersion++;
             }
         }
 
         // Update set representations.
         private void updateSetRepresentations() {
             setContours = new Contours(lastAnimatedGraphics, layout);
+            transferSetRepresentations(setContours);
+        }
+
+        // Replace set representations by those of the given contours.
+        private void transferSetRepresentations(Contours contours) {
+            setContours = contours;
 
             // Create new representations.
             List<SetContour> sR = new ArrayList<SetContour>();
             for (int i = layout.sets.size() - 1; 0 <= i; i--) {
                 HSet pS = layout.sets.get(i);
 
-                Geometry bodyShape = setContours.ribbonShapes.get(i);
-                Geometry outlineShape = setContours.outlineShapes.get(i);
+                Geometry bodyShape = contours.ribbonShapes.get(i);
+                Geometry outlineShape = contours.outlineShapes.get(i);
 
                 SetContour rep = new SetContour(model, setColors, pS, i, bodyShape, outlineShape);
                 sR.add(rep);
@@ -317,7 +520,28 @@ public class Overview extends PositionedSnippet {
             synchronized (setRepresentations) {
                 setRepresentations.clear();
                 setRepresentations.addAll(sR);
+                contentVersion++;
             }
         }
     }
+
+    /**
+     * Layout with its set contours, as shown at some point in time.
+     */
+    public static final class Snapshot {
+        private final Layout layout;
+        private final Contours contours;
+
+        private Snapshot(Layout layout, Contours contours) {
+            this.layout = layout;
+            this.contours = contours;
+        }
+
+        /**
+         * The sets that have been laid out.
+         */
+        public List<HSet> sets() {
+            return layout.sets;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.cytoscape.examine.internal.visualization.overview;
 
 import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.simplify.TopologyPreservingSimplifier;
 import org.cytoscape.examine.internal.data.HNode;
 import org.cytoscape.examine.internal.data.HSet;
 import org.cytoscape.examine.internal.graphics.Colors;
@@ -12,11 +13,15 @@ import org.cytoscape.examine.internal.visualization.SetRepresentation;
 import org.cytoscape.examine.internal.visualization.Util;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.cytoscape.examine.internal.visualization.Constants.CONTOUR_LOD_ERROR;
+import static org.cytoscape.examine.internal.visualization.Constants.CONTOUR_LOD_TOLERANCES;
+
 // Contour representation of a set.
-public class SetContour extends SetRepresentation {
+public class SetContour extends SetRepresentation implements Bounded {
 
     // Outline color weight and color.
     public static final double OUTLINE_WEIGHT = 1.75f;
@@ -24,6 +29,10 @@ public class SetContour extends SetRepresentation {
     public static final double OUTLINE_HIGHLIGHT_WEIGHT = 3f;
     public static final Color OUTLINE_HIGHLIGHT_COLOR = Colors.grey(0f);
     
+    // Dithered outline pens, by highlight state.
+    private static final Stroke OUTLINE_DASH = dashedPen(OUTLINE_WEIGHT);
+    private static final Stroke OUTLINE_HIGHLIGHT_DASH = dashedPen(OUTLINE_HIGHLIGHT_WEIGHT);
+    
     // Body opacity.
     public static final double BODY_OPACITY = 1f;
     
@@ -37,6 +46,15 @@ public class SetContour extends SetRepresentation {
     public final Geometry body, outline;
     public final Shape bodyShape, outlineShape;
     
+    // Simplified body and outline shapes per level of detail, derived on demand.
+    private final Shape[] bodyDetails, outlineDetails;
+    
+    // Dithered outlines as stroked shapes, by highlight state and level of detail.
+    private final Shape[][] dashedOutlines;
+    
+    // Bounds of body and outline, including outline stroke.
+    private final Rectangle2D bounds;
+    
     public SetContour(Model model, SetColors setColors, HSet set, int index, Geometry body, Geometry outline) {
         super(model, set);
 
@@ -48,6 +66,68 @@ public class SetContour extends SetRepresentation {
         this.bodyShape = Util.geometryToShape(body, 0); //0.0001);
         this.outline = outline;
         this.outlineShape = Util.geometryToShape(outline, 0); // 0.0001);
+        
+        this.bodyDetails = new Shape[CONTOUR_LOD_TOLERANCES.length];
+        this.outlineDetails = new Shape[CONTOUR_LOD_TOLERANCES.length];
+        this.bodyDetails[0] = bodyShape;
+        this.outlineDetails[0] = outlineShape;
+        this.dashedOutlines = new Shape[2][CONTOUR_LOD_TOLERANCES.length];
+        
+        this.bounds = bodyShape.getBounds2D().createUnion(outlineShape.getBounds2D());
+        this.bounds.setRect(
+                bounds.getX() - OUTLINE_HIGHLIGHT_WEIGHT,
+                bounds.getY() - OUTLINE_HIGHLIGHT_WEIGHT,
+                bounds.getWidth() + 2 * OUTLINE_HIGHLIGHT_WEIGHT,
+                bounds.getHeight() + 2 * OUTLINE_HIGHLIGHT_WEIGHT);
+    }
+    
+    private static Stroke dashedPen(double weight) {
+        return new BasicStroke(
+                (float) weight - .25f,
+                BasicStroke.CAP_ROUND,
+                BasicStroke.JOIN_ROUND,
+                4f,
+                new float[]{3f, 3f},
+                0f);
+    }
+    
+    // Coarsest level of detail that is indistinguishable at the current scale,
+    // full detail for exports.
+    private int detailLevel(AnimatedGraphics g) {
+        int level = 0;
+        
+        if(g.getDrawManager().isAnimated()) {
+            double scale = g.scaleFactor();
+            while(level + 1 < CONTOUR_LOD_TOLERANCES.length &&
+                  CONTOUR_LOD_TOLERANCES[level + 1] * scale <= CONTOUR_LOD_ERROR) {
+                level++;
+            }
+        }
+        
+        return level;
+    }
+    
+    // Body shape at the given level of detail.
+    private Shape bodyShape(int level) {
+        if(bodyDetails[level] == null) {
+            bodyDetails[level] = simplifiedShape(body, level);
+        }
+        
+        return bodyDetails[level];
+    }
+    
+    // Outline shape at the given level of detail.
+    private Shape outlineShape(int level) {
+        if(outlineDetails[level] == null) {
+            outlineDetails[level] = simplifiedShape(outline, level);
+        }
+        
+        return outlineDetails[level];
+    }
+    
+    private static Shape simplifiedShape(Geometry geometry, int level) {
+        return Util.geometryToShape(
+                TopologyPreservingSimplifier.simplify(geometry, CONTOUR_LOD_TOLERANCES[level]), 0);
     }
     
     // Color of the set.
@@ -60,38 +140,40 @@ public class SetContour extends SetRepresentation {
     @Override
     public void draw(AnimatedGraphics g) {
         boolean highlight = highlight();
+        int level = detailLevel(g);
         
         g.picking();
         
         g.color(bandColor(), BODY_OPACITY);
-        g.fill(bodyShape);
+        g.fill(bodyShape(level));
         
         // Solid outline in back.
         g.color(highlight ? OUTLINE_HIGHLIGHT_COLOR : OUTLINE_COLOR);
         g.strokeWeight(highlight ? OUTLINE_HIGHLIGHT_WEIGHT : OUTLINE_WEIGHT);
-        g.draw(outlineShape);
+        g.draw(outlineShape(level));
     }
     
     // Draw outline.
     public void drawOutline(AnimatedGraphics g) {
         boolean highlight = highlight();
+        int level = detailLevel(g);
         
         g.color(highlight ? OUTLINE_HIGHLIGHT_COLOR : OUTLINE_COLOR);
         
-        // Dithered outline in front (hack to Graphics2D).
-        g.pushStyle();
-        BasicStroke pen = new BasicStroke(
-                (float) (highlight ? OUTLINE_HIGHLIGHT_WEIGHT : OUTLINE_WEIGHT) - .25f,
-                BasicStroke.CAP_ROUND,
-                BasicStroke.JOIN_ROUND,
-                4f,
-                new float[]{3f, 3f},
-                0f);
-        g.stroke(pen);
-        
-        g.draw(outlineShape);
+        // Dithered outline in front (hack to Graphics2D), stroked once
+        // per highlight state and level of detail, then filled.
+        int state = highlight ? 1 : 0;
+        if(dashedOutlines[state][level] == null) {
+            Stroke pen = highlight ? OUTLINE_HIGHLIGHT_DASH : OUTLINE_DASH;
+            dashedOutlines[state][level] = pen.createStrokedShape(outlineShape(level));
+        }
         
-        g.popStyle();
+        g.fill(dashedOutlines[state][level]);
+    }
+
+    @Override
+    public Rectangle2D layoutBounds() {
+        return bounds;
     }
 
     @Override
@@ -106,11 +188,13 @@ public class SetContour extends SetRepresentation {
         hP.addAll(element.elements);
         model.highlightedProteins.set(hP);
         
-        // Highlight annotation sets that contain all elements of this set.
+        // Highlight annotation sets that contain all elements of this set,
+        // among the sets of its first element.
         Set<HSet> hT = new HashSet<HSet>();
-        hT.addAll(element.elements.get(0).sets);
-        for(int i = 1; i < element.elements.size(); i++) {
-            hT.retainAll(element.elements.get(i).sets);
+        for(HSet set: element.elements.get(0).sets) {
+            if(element.members.isSubsetOf(set.members)) {
+                hT.add(set);
+            }
         }
         model.highlightedSets.set(hT);
     }
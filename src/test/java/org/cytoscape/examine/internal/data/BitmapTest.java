@@ -0,0 +1,57 @@
+package org.cytoscape.examine.internal.data;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BitmapTest {
+
+    @Test
+    public void serializationRoundTrip() {
+        Random random = new Random(1);
+
+        // Empty, sparse, dense and spread out bitmaps.
+        int[] dense = new int[10000];
+        for (int i = 0; i < dense.length; i++) {
+            dense[i] = 3 * i;
+        }
+        int[] spread = new int[2000];
+        for (int i = 0; i < spread.length; i++) {
+            spread[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        Bitmap[] bitmaps = {
+                Bitmap.EMPTY,
+                Bitmap.of(0, 1, 65535, 65536, 1 << 20),
+                Bitmap.of(dense),
+                Bitmap.of(spread)
+        };
+
+        // Bitmaps back to back in a single buffer.
+        int size = 0;
+        for (Bitmap bitmap : bitmaps) {
+            size += bitmap.serializedSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Bitmap bitmap : bitmaps) {
+            int start = buffer.position();
+            bitmap.write(buffer);
+            assertEquals(bitmap.serializedSize(), buffer.position() - start);
+        }
+        assertEquals(size, buffer.position());
+
+        buffer.flip();
+        for (Bitmap bitmap : bitmaps) {
+            int start = buffer.position();
+            Bitmap read = Bitmap.read(buffer);
+            assertEquals(bitmap.serializedSize(), buffer.position() - start);
+            assertEquals(bitmap, read);
+            assertArrayEquals(bitmap.toArray(), read.toArray());
+        }
+        assertEquals(0, buffer.remaining());
+    }
+
+}
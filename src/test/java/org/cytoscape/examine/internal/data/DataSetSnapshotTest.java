@@ -0,0 +1,105 @@
+package org.cytoscape.examine.internal.data;
+
+import org.jgrapht.Graph;
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DataSetSnapshotTest {
+
+    @Test
+    public void writeReadRoundTrip() throws IOException {
+        HNode a = new HNode(0, null, null, "a", "A", "http://a", 0.5);
+        HNode b = new HNode(1, null, null, "b", "B", null, Double.NaN);
+        HNode c = new HNode(2, null, null, "c", "Ç", "http://c", 1);
+        HNode outside = new HNode(3, null, null, "x", "X", null, 0);
+
+        UndirectedGraph<HNode, DefaultEdge> graph = new Pseudograph<HNode, DefaultEdge>(DefaultEdge.class);
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addEdge(a, b);
+        graph.addEdge(c, b);
+        graph.addEdge(c, c);
+
+        // Sets with a member outside of the network, and a set in two categories.
+        Map<String, HCategory> categories = new LinkedHashMap<String, HCategory>();
+        categories.put("GO", new HCategory(null, "GO", new ArrayList<HSet>(Arrays.asList(
+                set("s1", 0.01, "http://s1", a, b),
+                set("s2", Double.NaN, null, b, c, outside))), 10));
+        categories.put("KEGG", new HCategory(null, "KEGG", new ArrayList<HSet>(Arrays.asList(
+                set("s1", 0.01, "http://s1", a, b))), 5));
+        DataSet dataSet = new DataSet(new SuperNetwork(null, graph), categories);
+
+        File file = File.createTempFile("examine", ".snapshot");
+        try {
+            DataSetSnapshot.write(dataSet, file);
+            DataSet read = DataSetSnapshot.read(file);
+
+            assertEquals(describe(dataSet), describe(read));
+            for (HNode node : read.superNetwork.get().graph.vertexSet()) {
+                assertFalse(node.id.equals(outside.id));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static HSet set(String name, double score, String url, HNode... members) {
+        HSet set = new HSet(null, name, score, url, Arrays.asList(members));
+        for (HNode node : members) {
+            node.sets.add(set);
+        }
+        return set;
+    }
+
+    // Textual description of network and sets, independent of element identity and order.
+    private static String describe(DataSet dataSet) {
+        Graph<HNode, DefaultEdge> graph = dataSet.superNetwork.get().graph;
+
+        List<String> nodes = new ArrayList<String>();
+        for (HNode node : graph.vertexSet()) {
+            nodes.add(node.id + "|" + node.name + "|" + node.url + "|" + node.score + "|" + node.sets.size());
+        }
+        Collections.sort(nodes);
+
+        List<String> edges = new ArrayList<String>();
+        for (DefaultEdge edge : graph.edgeSet()) {
+            String source = graph.getEdgeSource(edge).id;
+            String target = graph.getEdgeTarget(edge).id;
+            edges.add(source.compareTo(target) < 0 ? source + "-" + target : target + "-" + source);
+        }
+        Collections.sort(edges);
+
+        StringBuilder description = new StringBuilder();
+        description.append(nodes).append('\n').append(edges).append('\n');
+        for (HCategory category : dataSet.categories.get().values()) {
+            description.append(category.name).append(' ').append(category.maxSize).append(':');
+            for (HSet set : category.members) {
+                List<String> members = new ArrayList<String>();
+                for (HNode node : set.elements) {
+                    members.add(node.id);
+                }
+                Collections.sort(members);
+                description.append(' ').append(set.name).append('|').append(set.score)
+                           .append('|').append(set.url).append(members);
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+
+}